@@ -0,0 +1,50 @@
+package com.gszczepanski.auctionapi.domain;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdBenchmark {
+
+    private final String uuidString = "3c7a4b1e-8d52-4f0a-9e6b-2a1d5c9f7e40";
+
+    private final UUID uuid = UUID.fromString(uuidString);
+
+    private final byte[] bytes = Id.from(uuid).asBytes();
+
+    @Benchmark
+    public Id fromString() {
+        return Id.from(uuidString);
+    }
+
+    @Benchmark
+    public Id fromUuid() {
+        return Id.from(uuid);
+    }
+
+    @Benchmark
+    public Id fromBytes() {
+        return Id.fromBytes(bytes);
+    }
+
+    @Benchmark
+    public Id generate() {
+        return Id.generate();
+    }
+
+}
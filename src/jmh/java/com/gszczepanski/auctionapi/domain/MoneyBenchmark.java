@@ -0,0 +1,62 @@
+package com.gszczepanski.auctionapi.domain;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static com.gszczepanski.auctionapi.domain.Money.Currency.PLN;
+
+/**
+ * Compares minor units arithmetic with the {@link BigDecimal} operations Money used to delegate to.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private final Money candidate = Money.from("130.01", PLN);
+
+    private final Money topBet = Money.from("130.00", PLN);
+
+    private final BigDecimal candidateAmount = new BigDecimal("130.01");
+
+    private final BigDecimal topBetAmount = new BigDecimal("130.00");
+
+    @Benchmark
+    public boolean isGreaterThan() {
+        return candidate.isGreaterThan(topBet);
+    }
+
+    @Benchmark
+    public boolean bigDecimalCompareTo() {
+        return candidateAmount.compareTo(topBetAmount) > 0;
+    }
+
+    @Benchmark
+    public Money add() {
+        return candidate.add(topBet);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalAdd() {
+        return candidateAmount.add(topBetAmount);
+    }
+
+    @Benchmark
+    public Money fromBigDecimal() {
+        return Money.from(candidateAmount, PLN);
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.gszczepanski.auctionapi.domain.auction;
+
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gszczepanski.auctionapi.domain.Id;
+import com.gszczepanski.auctionapi.domain.Money;
+import com.gszczepanski.auctionapi.domain.Time;
+import com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResult;
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot.BetSnapshot;
+
+import static com.gszczepanski.auctionapi.domain.Money.Currency.PLN;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuctionBenchmark {
+
+    private static final String CODE = "JMH-0001";
+
+    private static final long MINIMAL_PRICE = 10_00L;
+
+    @Param({"0", "100", "10000"})
+    private int existingBets;
+
+    private final Time time = new Time(Clock.fixed(OffsetDateTime.of(2021, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC).toInstant(), ZoneOffset.UTC));
+
+    private final Id userId = Id.generate();
+
+    private AuctionSnapshot snapshot;
+
+    private Auction auction;
+
+    private PlaceBetSpecification tooLowBet;
+
+    private long nextPrice;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        OffsetDateTime now = time.now();
+        BetSnapshot topBet = existingBets == 0 ? null : BetSnapshot.builder()
+                .id(Id.generate())
+                .userId(userId)
+                .price(Money.ofMinorUnits(MINIMAL_PRICE + existingBets, PLN))
+                .creationTime(now)
+                .build();
+        snapshot = AuctionSnapshot.builder()
+                .id(Id.generate())
+                .code(CODE)
+                .minimalPrice(Money.ofMinorUnits(MINIMAL_PRICE, PLN))
+                .startDate(now.minusDays(1))
+                .endDate(now.plusDays(1))
+                .topBet(topBet)
+                .betsCount(existingBets)
+                .version(existingBets)
+                .status(Auction.AuctionStatus.STARTED)
+                .creationTime(now.minusDays(2))
+                .build();
+        auction = Auction.restoreFrom(snapshot);
+        tooLowBet = PlaceBetSpecification.builder()
+                .auctionCode(CODE)
+                .userId(userId)
+                .price(Money.ofMinorUnits(MINIMAL_PRICE - 1, PLN))
+                .build();
+        nextPrice = MINIMAL_PRICE + existingBets + 1;
+    }
+
+    /**
+     * Includes building the specification, as every accepted bid arrives with a new price.
+     */
+    @Benchmark
+    public PlaceBetResult placeBetAccepted() {
+        return auction.placeBet(
+                PlaceBetSpecification.builder()
+                        .auctionCode(CODE)
+                        .userId(userId)
+                        .price(Money.ofMinorUnits(nextPrice++, PLN))
+                        .build(),
+                time
+        );
+    }
+
+    @Benchmark
+    public PlaceBetResult placeBetRejected() {
+        return auction.placeBet(tooLowBet, time);
+    }
+
+    @Benchmark
+    public Auction restoreFrom() {
+        return Auction.restoreFrom(snapshot);
+    }
+
+    @Benchmark
+    public AuctionSnapshot asSnapshot() {
+        return auction.asSnapshot();
+    }
+
+}
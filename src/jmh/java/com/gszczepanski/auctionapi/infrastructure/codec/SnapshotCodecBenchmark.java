@@ -0,0 +1,203 @@
+package com.gszczepanski.auctionapi.infrastructure.codec;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.gszczepanski.auctionapi.domain.Id;
+import com.gszczepanski.auctionapi.domain.Money;
+import com.gszczepanski.auctionapi.domain.Money.Currency;
+import com.gszczepanski.auctionapi.domain.auction.Auction.AuctionStatus;
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot;
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot.BetSnapshot;
+
+/**
+ * Compares {@link SnapshotCodec} with Jackson JSON of the same snapshot, the way the application configures it.
+ * Encoded sizes are printed on setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotCodecBenchmark {
+
+    private final SnapshotCodec snapshotCodec = new SnapshotCodec();
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final ByteBuffer encodeBuffer = ByteBuffer.allocate(256);
+
+    private AuctionSnapshot snapshot;
+
+    private ByteBuffer binary;
+
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        OffsetDateTime now = OffsetDateTime.of(2021, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+        snapshot = AuctionSnapshot.builder()
+                .id(Id.generate())
+                .code("JMH-0001")
+                .status(AuctionStatus.STARTED)
+                .version(42)
+                .minimalPrice(Money.from("100.00", Currency.PLN))
+                .currentAuctionedPrice(Money.from("1520.50", Currency.PLN))
+                .startDate(now.minusDays(1))
+                .endDate(now.plusDays(1))
+                .creationTime(now.minusDays(2))
+                .topBet(BetSnapshot.builder()
+                        .id(Id.generate())
+                        .userId(Id.generate())
+                        .price(Money.from("1520.50", Currency.PLN))
+                        .creationTime(now)
+                        .build())
+                .betsCount(42)
+                .build();
+
+        snapshotCodec.encode(snapshot, encodeBuffer);
+        encodeBuffer.flip();
+        binary = ByteBuffer.allocate(encodeBuffer.remaining()).put(encodeBuffer);
+        binary.flip();
+        json = objectMapper.writeValueAsBytes(JsonAuction.from(snapshot));
+        System.out.printf("%nEncoded AuctionSnapshot: binary %d bytes, JSON %d bytes%n", binary.remaining(), json.length);
+    }
+
+    @Benchmark
+    public int encodeBinary() {
+        encodeBuffer.clear();
+        snapshotCodec.encode(snapshot, encodeBuffer);
+        return encodeBuffer.position();
+    }
+
+    @Benchmark
+    public AuctionSnapshot decodeBinary() {
+        return snapshotCodec.decodeAuction(binary.duplicate());
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws IOException {
+        return objectMapper.writeValueAsBytes(JsonAuction.from(snapshot));
+    }
+
+    @Benchmark
+    public AuctionSnapshot decodeJson() throws IOException {
+        return objectMapper.readValue(json, JsonAuction.class).toSnapshot();
+    }
+
+    /**
+     * Snapshot as plain JSON, with ids as strings and money as decimal amounts.
+     */
+    public static class JsonAuction {
+
+        public String id;
+
+        public String code;
+
+        public AuctionStatus status;
+
+        public int version;
+
+        public BigDecimal minimalPrice;
+
+        public BigDecimal currentAuctionedPrice;
+
+        public Currency currency;
+
+        public OffsetDateTime startDate;
+
+        public OffsetDateTime endDate;
+
+        public OffsetDateTime creationTime;
+
+        public int betsCount;
+
+        public JsonBet topBet;
+
+        static JsonAuction from(AuctionSnapshot snapshot) {
+            JsonAuction auction = new JsonAuction();
+            auction.id = snapshot.getId().asString();
+            auction.code = snapshot.getCode();
+            auction.status = snapshot.getStatus();
+            auction.version = snapshot.getVersion();
+            auction.minimalPrice = snapshot.getMinimalPrice().getAmount();
+            auction.currentAuctionedPrice = snapshot.getCurrentAuctionedPrice().getAmount();
+            auction.currency = snapshot.getMinimalPrice().getCurrency();
+            auction.startDate = snapshot.getStartDate();
+            auction.endDate = snapshot.getEndDate();
+            auction.creationTime = snapshot.getCreationTime();
+            auction.betsCount = snapshot.getBetsCount();
+            auction.topBet = snapshot.getTopBet().map(JsonBet::from).orElse(null);
+            return auction;
+        }
+
+        AuctionSnapshot toSnapshot() {
+            return AuctionSnapshot.builder()
+                    .id(Id.from(id))
+                    .code(code)
+                    .status(status)
+                    .version(version)
+                    .minimalPrice(Money.from(minimalPrice, currency))
+                    .currentAuctionedPrice(Money.from(currentAuctionedPrice, currency))
+                    .startDate(startDate)
+                    .endDate(endDate)
+                    .creationTime(creationTime)
+                    .betsCount(betsCount)
+                    .topBet(topBet == null ? null : topBet.toSnapshot(currency))
+                    .build();
+        }
+
+    }
+
+    public static class JsonBet {
+
+        public String id;
+
+        public String userId;
+
+        public BigDecimal price;
+
+        public OffsetDateTime creationTime;
+
+        static JsonBet from(BetSnapshot snapshot) {
+            JsonBet bet = new JsonBet();
+            bet.id = snapshot.getId().asString();
+            bet.userId = snapshot.getUserId().asString();
+            bet.price = snapshot.getPrice().getAmount();
+            bet.creationTime = snapshot.getCreationTime();
+            return bet;
+        }
+
+        BetSnapshot toSnapshot(Currency currency) {
+            return BetSnapshot.builder()
+                    .id(Id.from(id))
+                    .userId(Id.from(userId))
+                    .price(Money.from(price, currency))
+                    .creationTime(creationTime)
+                    .build();
+        }
+
+    }
+
+}
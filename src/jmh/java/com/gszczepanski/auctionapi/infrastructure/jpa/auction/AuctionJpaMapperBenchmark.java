@@ -0,0 +1,79 @@
+package com.gszczepanski.auctionapi.infrastructure.jpa.auction;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gszczepanski.auctionapi.domain.Id;
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuctionJpaMapperBenchmark {
+
+    @Param({"0", "100", "10000"})
+    private int existingBets;
+
+    private final AuctionJpaMapper auctionJpaMapper = new AuctionJpaMapper();
+
+    private AuctionEntity entity;
+
+    private Optional<BetEntity> topBet;
+
+    private AuctionSnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        OffsetDateTime now = OffsetDateTime.of(2021, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+        AuctionEntity auction = AuctionEntity.builder().id(Id.generate().asUuid()).build();
+        topBet = existingBets == 0 ? Optional.empty() : Optional.of(BetEntity.builder()
+                .id(Id.generate().asUuid())
+                .userId(UUID.randomUUID())
+                .auction(auction)
+                .price(new EmbeddedMoney(BigDecimal.valueOf(1000 + existingBets, 2), "PLN"))
+                .creationTime(now)
+                .build());
+        entity = AuctionEntity.builder()
+                .id(auction.getId())
+                .code("JMH-0001")
+                .status("STARTED")
+                .minimalPrice(new EmbeddedMoney(BigDecimal.valueOf(1000, 2), "PLN"))
+                .startDate(now.minusDays(1))
+                .endDate(now.plusDays(1))
+                .creationTime(now.minusDays(2))
+                .version(existingBets)
+                .betsCount(existingBets)
+                .build();
+        snapshot = auctionJpaMapper.fromEntity(entity, topBet);
+    }
+
+    @Benchmark
+    public AuctionSnapshot fromEntity() {
+        return auctionJpaMapper.fromEntity(entity, topBet);
+    }
+
+    @Benchmark
+    public AuctionEntity toEntity() {
+        return auctionJpaMapper.toEntity(snapshot);
+    }
+
+}
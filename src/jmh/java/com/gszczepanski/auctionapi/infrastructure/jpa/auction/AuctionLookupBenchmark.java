@@ -0,0 +1,146 @@
+package com.gszczepanski.auctionapi.infrastructure.jpa.auction;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.gszczepanski.auctionapi.AuctionApiApplication;
+import com.gszczepanski.auctionapi.domain.Id;
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot;
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot.BetSnapshot;
+
+import static com.gszczepanski.auctionapi.domain.auction.AuctionRepository.AuctionQuery.queryForCode;
+import static com.gszczepanski.auctionapi.domain.auction.AuctionRepository.BetHistoryQuery.DEFAULT_LIMIT;
+import static com.gszczepanski.auctionapi.domain.auction.AuctionRepository.BetHistoryQuery.firstPage;
+
+/**
+ * Lookup latency of the hot query paths over a generated data set. The application runs in-process on an in-memory
+ * H2 in MySQL mode and data is generated with H2's SYSTEM_RANGE, so a large data set needs a large heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AuctionLookupBenchmark {
+
+    private static final long INSERT_CHUNK_SIZE = 50_000;
+
+    @Param("10000")
+    private long auctions;
+
+    @Param("500000")
+    private long bets;
+
+    private ConfigurableApplicationContext context;
+
+    private AuctionJpaRepository auctionRepository;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transactionTemplate;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(AuctionApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:lookup;DATABASE_TO_UPPER=false;DB_CLOSE_DELAY=-1;MODE=MySQL",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--auction.events.relay.enabled=false",
+                        "--auction.lifecycle.scheduler.enabled=false",
+                        "--logging.level.root=WARN"
+                );
+        auctionRepository = context.getBean(AuctionJpaRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        givenAuctions();
+        givenBets();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<AuctionSnapshot> findOneByCode() {
+        return transactionTemplate.execute(status -> auctionRepository.findOne(queryForCode(randomCode())));
+    }
+
+    @Benchmark
+    public List<BetSnapshot> findBetsFirstPage() {
+        return transactionTemplate.execute(status -> auctionRepository.findBets(firstPage(randomId(), DEFAULT_LIMIT)));
+    }
+
+    @Benchmark
+    public List<byte[]> startSweepIdChunk() {
+        return sweepIds("NOT_STARTED", "start_date <= ?");
+    }
+
+    @Benchmark
+    public List<byte[]> finishSweepIdChunk() {
+        return sweepIds("STARTED", "end_date < ?");
+    }
+
+    private void givenAuctions() {
+        for (long from = 1; from <= auctions; from += INSERT_CHUNK_SIZE) {
+            jdbcTemplate.update("INSERT INTO auctions (id, code, status, minimal_price_amount, minimal_price_currency, start_date, end_date, creation_time, version) "
+                    + "SELECT CAST(CAST(CONCAT('0000000000004000a000', LPAD(X, 12, '0')) AS UUID) AS BINARY(16)), CONCAT('BENCH-', X), "
+                    + "CASE MOD(X, 3) WHEN 0 THEN 'NOT_STARTED' WHEN 1 THEN 'STARTED' ELSE 'FINISHED_SOLD' END, "
+                    + "100.00, 'PLN', "
+                    + "DATEADD('MINUTE', X, TIMESTAMP '2021-01-01 00:00:00'), "
+                    + "DATEADD('MINUTE', X, TIMESTAMP '2021-02-01 00:00:00'), "
+                    + "TIMESTAMP '2020-12-01 00:00:00', 0 "
+                    + "FROM SYSTEM_RANGE(?, ?)", from, Math.min(from + INSERT_CHUNK_SIZE - 1, auctions));
+        }
+    }
+
+    private void givenBets() {
+        for (long from = 1; from <= bets; from += INSERT_CHUNK_SIZE) {
+            jdbcTemplate.update("INSERT INTO bets (id, user_id, auction_id, price_amount, price_currency, creation_time) "
+                    + "SELECT CAST(CAST(CONCAT('0000000000004000b000', LPAD(X, 12, '0')) AS UUID) AS BINARY(16)), X'00000000000040008000000000000001', "
+                    + "CAST(CAST(CONCAT('0000000000004000a000', LPAD(MOD(X, ?) + 1, 12, '0')) AS UUID) AS BINARY(16)), "
+                    + "100.00 + MOD(X * 7919, 100000) / 100.0, 'PLN', "
+                    + "DATEADD('SECOND', X, TIMESTAMP '2021-01-01 00:00:00') "
+                    + "FROM SYSTEM_RANGE(?, ?)", auctions, from, Math.min(from + INSERT_CHUNK_SIZE - 1, bets));
+        }
+        jdbcTemplate.update("UPDATE auctions SET bets_count = (SELECT COUNT(*) FROM bets WHERE bets.auction_id = auctions.id)");
+    }
+
+    private List<byte[]> sweepIds(String status, String datePredicate) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM auctions WHERE status = ? AND " + datePredicate + " ORDER BY id LIMIT 500",
+                byte[].class, status, "2021-06-01 00:00:00"
+        );
+    }
+
+    private String randomCode() {
+        return "BENCH-" + ThreadLocalRandom.current().nextLong(1, auctions + 1);
+    }
+
+    private Id randomId() {
+        return Id.from(String.format("00000000-0000-4000-a000-%012d", ThreadLocalRandom.current().nextLong(1, auctions + 1)));
+    }
+
+}
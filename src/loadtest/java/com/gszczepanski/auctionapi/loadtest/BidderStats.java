@@ -0,0 +1,36 @@
+package com.gszczepanski.auctionapi.loadtest;
+
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+
+final class BidderStats {
+
+    private static final long HIGHEST_TRACKABLE_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    final Histogram latencyMicros = new Histogram(HIGHEST_TRACKABLE_LATENCY_MICROS, 3);
+
+    long accepted;
+
+    long outbid;
+
+    long optimisticLockFailures;
+
+    long errors;
+
+    long allocatedBytes;
+
+    long total() {
+        return accepted + outbid + optimisticLockFailures + errors;
+    }
+
+    void add(BidderStats other) {
+        latencyMicros.add(other.latencyMicros);
+        accepted += other.accepted;
+        outbid += other.outbid;
+        optimisticLockFailures += other.optimisticLockFailures;
+        errors += other.errors;
+        allocatedBytes += other.allocatedBytes;
+    }
+
+}
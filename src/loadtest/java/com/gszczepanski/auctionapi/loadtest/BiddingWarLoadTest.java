@@ -0,0 +1,259 @@
+package com.gszczepanski.auctionapi.loadtest;
+
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.collect.ObjectArrays;
+import com.gszczepanski.auctionapi.AuctionApiApplication;
+import com.gszczepanski.auctionapi.domain.Id;
+import com.gszczepanski.auctionapi.domain.Money;
+import com.gszczepanski.auctionapi.domain.auction.Auction.AuctionStatus;
+import com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResult;
+import com.gszczepanski.auctionapi.domain.auction.AuctionRepository;
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot;
+import com.gszczepanski.auctionapi.domain.auction.Auctions;
+import com.gszczepanski.auctionapi.domain.auction.PlaceBetSpecification;
+import com.gszczepanski.auctionapi.domain.auction.ShardedAuctionEngine;
+
+import static com.gszczepanski.auctionapi.domain.Money.Currency.PLN;
+
+/**
+ * Drives concurrent bidding against a single node started on an embedded database and reports throughput, latency
+ * percentiles, optimistic lock failure rate and GC activity. Settings are read from {@code loadtest.*} system
+ * properties, see the loadtest profile in pom.xml.
+ */
+public final class BiddingWarLoadTest {
+
+    private static final long MINIMAL_PRICE = 1_00L;
+
+    private static final int MAX_RAISE = 50;
+
+    private final LoadTestSettings settings;
+
+    private final BidTarget bidTarget;
+
+    private final ZipfSampler auctionSampler;
+
+    private final AtomicLongArray seenTopPrices;
+
+    private final Id[] bidders;
+
+    private BiddingWarLoadTest(LoadTestSettings settings, BidTarget bidTarget) {
+        this.settings = settings;
+        this.bidTarget = bidTarget;
+        this.auctionSampler = new ZipfSampler(settings.getAuctions(), settings.getZipfExponent());
+        this.seenTopPrices = new AtomicLongArray(settings.getAuctions());
+        this.bidders = new Id[settings.getBidders()];
+        for (int i = 0; i < bidders.length; i++) {
+            bidders[i] = Id.generate();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AuctionApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(ObjectArrays.concat(settings.springArguments(), args, String.class))) {
+            seedStartedAuctions(context, settings.getAuctions());
+            new BiddingWarLoadTest(settings, bidTargetFrom(context)).run(System.out);
+        }
+    }
+
+    private static BidTarget bidTargetFrom(ConfigurableApplicationContext context) {
+        if (context.getBeanProvider(ShardedAuctionEngine.class).getIfAvailable() != null) {
+            ShardedAuctionEngine engine = context.getBean(ShardedAuctionEngine.class);
+            return specification -> engine.placeBet(specification).join();
+        }
+        Auctions auctions = context.getBean(Auctions.class);
+        return auctions::placeBet;
+    }
+
+    private static void seedStartedAuctions(ConfigurableApplicationContext context, int count) {
+        AuctionRepository auctionRepository = context.getBean(AuctionRepository.class);
+        OffsetDateTime now = OffsetDateTime.now();
+        context.getBean(TransactionTemplate.class).executeWithoutResult(status -> {
+            for (int i = 0; i < count; i++) {
+                auctionRepository.save(AuctionSnapshot.builder()
+                        .id(Id.generate())
+                        .code(auctionCode(i))
+                        .minimalPrice(Money.ofMinorUnits(MINIMAL_PRICE, PLN))
+                        .startDate(now.minusMinutes(1))
+                        .endDate(now.plusDays(1))
+                        .status(AuctionStatus.STARTED)
+                        .creationTime(now)
+                        .build());
+            }
+        });
+    }
+
+    private static String auctionCode(int index) {
+        return String.format("LOAD-%06d", index);
+    }
+
+    private void run(PrintStream out) throws InterruptedException {
+        long measureFrom = System.nanoTime() + settings.getWarmup().toNanos();
+        long deadline = measureFrom + settings.getDuration().toNanos();
+
+        List<BidderStats> stats = new ArrayList<>(settings.getThreads());
+        List<Thread> workers = new ArrayList<>(settings.getThreads());
+        for (int i = 0; i < settings.getThreads(); i++) {
+            BidderStats workerStats = new BidderStats();
+            Thread worker = new Thread(() -> bid(workerStats, measureFrom, deadline), "bidder-" + i);
+            stats.add(workerStats);
+            workers.add(worker);
+            worker.start();
+        }
+
+        TimeUnit.NANOSECONDS.sleep(Math.max(0, measureFrom - System.nanoTime()));
+        Map<String, long[]> gcBefore = gcCountsAndTimes();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        Map<String, long[]> gcAfter = gcCountsAndTimes();
+
+        BidderStats total = new BidderStats();
+        stats.forEach(total::add);
+        report(out, total, gcBefore, gcAfter);
+    }
+
+    private void bid(BidderStats stats, long measureFrom, long deadline) {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        boolean measuring = false;
+        long allocatedAtMeasureStart = 0;
+
+        long now;
+        while ((now = System.nanoTime()) < deadline) {
+            if (!measuring && now >= measureFrom) {
+                measuring = true;
+                allocatedAtMeasureStart = threadMXBean.getCurrentThreadAllocatedBytes();
+            }
+
+            int auction = auctionSampler.next();
+            long price = Math.max(seenTopPrices.get(auction), MINIMAL_PRICE) + 1 + random.nextInt(MAX_RAISE);
+            PlaceBetSpecification specification = PlaceBetSpecification.builder()
+                    .auctionCode(auctionCode(auction))
+                    .userId(bidders[random.nextInt(bidders.length)])
+                    .price(Money.ofMinorUnits(price, PLN))
+                    .build();
+
+            long start = System.nanoTime();
+            Outcome outcome = placeBet(specification);
+            long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            if (outcome == Outcome.ACCEPTED) {
+                seenTopPrices.accumulateAndGet(auction, price, Math::max);
+            }
+            if (measuring) {
+                record(stats, outcome, latencyMicros);
+            }
+        }
+        stats.allocatedBytes = measuring ? threadMXBean.getCurrentThreadAllocatedBytes() - allocatedAtMeasureStart : 0;
+    }
+
+    private Outcome placeBet(PlaceBetSpecification specification) {
+        try {
+            PlaceBetResult result = bidTarget.placeBet(specification);
+            switch (result.getStatus()) {
+                case SUCCESS:
+                    return Outcome.ACCEPTED;
+                case FAILURE_PRICE_TOO_LOW:
+                    return Outcome.OUTBID;
+                default:
+                    return Outcome.ERROR;
+            }
+        } catch (OptimisticLockingFailureException exception) {
+            return Outcome.OPTIMISTIC_LOCK_FAILURE;
+        } catch (CompletionException exception) {
+            return exception.getCause() instanceof OptimisticLockingFailureException ? Outcome.OPTIMISTIC_LOCK_FAILURE : Outcome.ERROR;
+        } catch (RuntimeException exception) {
+            return Outcome.ERROR;
+        }
+    }
+
+    private void record(BidderStats stats, Outcome outcome, long latencyMicros) {
+        stats.latencyMicros.recordValue(Math.min(latencyMicros, stats.latencyMicros.getHighestTrackableValue()));
+        switch (outcome) {
+            case ACCEPTED:
+                stats.accepted++;
+                break;
+            case OUTBID:
+                stats.outbid++;
+                break;
+            case OPTIMISTIC_LOCK_FAILURE:
+                stats.optimisticLockFailures++;
+                break;
+            default:
+                stats.errors++;
+        }
+    }
+
+    private static Map<String, long[]> gcCountsAndTimes() {
+        Map<String, long[]> result = new LinkedHashMap<>();
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            result.put(collector.getName(), new long[]{collector.getCollectionCount(), collector.getCollectionTime()});
+        }
+        return result;
+    }
+
+    private void report(PrintStream out, BidderStats total, Map<String, long[]> gcBefore, Map<String, long[]> gcAfter) {
+        double seconds = settings.getDuration().toMillis() / 1000.0;
+        long bids = total.total();
+
+        out.printf("%nBidding war: %d auctions, zipf exponent %.2f, %d threads, engine %s, %s measured after %s warmup%n",
+                settings.getAuctions(), settings.getZipfExponent(), settings.getThreads(), settings.getEngineMode(),
+                settings.getDuration(), settings.getWarmup());
+        out.printf("throughput               %12.1f bids/s (%d bids)%n", bids / seconds, bids);
+        out.printf("accepted                 %12d (%.2f%%)%n", total.accepted, percentOf(total.accepted, bids));
+        out.printf("outbid                   %12d (%.2f%%)%n", total.outbid, percentOf(total.outbid, bids));
+        out.printf("optimistic lock failures %12d (%.2f%%)%n", total.optimisticLockFailures, percentOf(total.optimisticLockFailures, bids));
+        out.printf("errors                   %12d (%.2f%%)%n", total.errors, percentOf(total.errors, bids));
+        out.printf("latency us               p50 %d  p99 %d  p99.9 %d  max %d%n",
+                total.latencyMicros.getValueAtPercentile(50),
+                total.latencyMicros.getValueAtPercentile(99),
+                total.latencyMicros.getValueAtPercentile(99.9),
+                total.latencyMicros.getMaxValue());
+        out.printf("allocated by bidders     %12.1f MB/s (%.0f B/bid)%n",
+                total.allocatedBytes / seconds / (1024 * 1024), bids == 0 ? 0.0 : (double) total.allocatedBytes / bids);
+        gcAfter.forEach((collector, after) -> {
+            long[] before = gcBefore.getOrDefault(collector, new long[2]);
+            out.printf("gc %-21s %12d collections, %d ms%n", collector, after[0] - before[0], after[1] - before[1]);
+        });
+    }
+
+    private static double percentOf(long part, long total) {
+        return total == 0 ? 0.0 : part * 100.0 / total;
+    }
+
+    private enum Outcome {
+
+        ACCEPTED,
+        OUTBID,
+        OPTIMISTIC_LOCK_FAILURE,
+        ERROR
+
+    }
+
+    @FunctionalInterface
+    private interface BidTarget {
+
+        PlaceBetResult placeBet(PlaceBetSpecification specification);
+
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.gszczepanski.auctionapi.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Value;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+@Value
+final class LoadTestSettings {
+
+    private final int auctions;
+
+    private final int bidders;
+
+    private final int threads;
+
+    private final double zipfExponent;
+
+    private final Duration warmup;
+
+    private final Duration duration;
+
+    private final String engineMode;
+
+    private final String jdbcUrl;
+
+    private final int poolSize;
+
+    static LoadTestSettings fromSystemProperties() {
+        LoadTestSettings settings = new LoadTestSettings(
+                Integer.getInteger("loadtest.auctions", 100),
+                Integer.getInteger("loadtest.bidders", 10_000),
+                Integer.getInteger("loadtest.threads", 64),
+                Double.parseDouble(System.getProperty("loadtest.zipf-exponent", "1.1")),
+                Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 5)),
+                Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 30)),
+                System.getProperty("loadtest.engine-mode", "database"),
+                System.getProperty("loadtest.jdbc-url", "jdbc:h2:mem:loadtest;DATABASE_TO_UPPER=false;DB_CLOSE_DELAY=-1;MODE=MySQL"),
+                Integer.getInteger("loadtest.pool-size", 20)
+        );
+        checkArgument(settings.auctions > 0, "loadtest.auctions must be positive");
+        checkArgument(settings.bidders > 0, "loadtest.bidders must be positive");
+        checkArgument(settings.threads > 0, "loadtest.threads must be positive");
+        checkArgument(!settings.duration.isZero() && !settings.duration.isNegative(), "loadtest.duration-seconds must be positive");
+        return settings;
+    }
+
+    /**
+     * Passed as command line arguments, so they take precedence over application.yaml.
+     */
+    String[] springArguments() {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url", jdbcUrl);
+        if (jdbcUrl.startsWith("jdbc:h2:")) {
+            properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        }
+        properties.put("spring.datasource.hikari.maximum-pool-size", poolSize);
+        properties.put("auction.engine.mode", engineMode);
+        properties.put("auction.events.relay.enabled", false);
+        properties.put("auction.lifecycle.scheduler.enabled", false);
+        properties.put("logging.level.root", "WARN");
+        return properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.gszczepanski.auctionapi.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Picks ranks 0..size-1 with probability proportional to 1 / (rank + 1)^exponent, exponent 0 gives a uniform spread.
+ */
+final class ZipfSampler {
+
+    private final double[] cumulativeProbabilities;
+
+    ZipfSampler(int size, double exponent) {
+        checkArgument(size > 0, "size must be positive");
+        checkArgument(exponent >= 0, "exponent can not be negative");
+
+        cumulativeProbabilities = new double[size];
+        double sum = 0;
+        for (int rank = 0; rank < size; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, exponent);
+            cumulativeProbabilities[rank] = sum;
+        }
+        for (int rank = 0; rank < size; rank++) {
+            cumulativeProbabilities[rank] /= sum;
+        }
+    }
+
+    int next() {
+        int index = Arrays.binarySearch(cumulativeProbabilities, ThreadLocalRandom.current().nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulativeProbabilities.length - 1);
+    }
+
+}
@@ -9,12 +9,14 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 @SpringBootApplication(scanBasePackages = "com.gszczepanski.auctionapi")
 @EntityScan(basePackages = "com.gszczepanski.auctionapi")
 @EnableJpaRepositories
 @EnableTransactionManagement
+@EnableScheduling
 public class AuctionApiApplication {
 
     public static void main(String[] args) {
@@ -1,37 +1,83 @@
 package com.gszczepanski.auctionapi.domain;
 
+import java.nio.ByteBuffer;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Value;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.nonNull;
+import static lombok.AccessLevel.NONE;
 import static lombok.AccessLevel.PRIVATE;
 
 @Value
 @RequiredArgsConstructor(access = PRIVATE)
 public class Id {
 
-    private final String value;
+    private static final int BYTES = 16;
 
-    public static Id from(String uuid) {
-        validateUuid(uuid);
-        return new Id(uuid);
-    }
+    private static final long VERSION_7 = 0x7000L;
+
+    private static final long VARIANT_RFC_4122 = 0x8000000000000000L;
+
+    @Getter(NONE)
+    private final long mostSignificantBits;
 
-    private static void validateUuid(String uuid) {
+    @Getter(NONE)
+    private final long leastSignificantBits;
+
+    public static Id from(String uuid) {
+        checkArgument(nonNull(uuid), "Not valid UUID provided as Id");
         try {
-            UUID.fromString(uuid);
+            return from(UUID.fromString(uuid));
         } catch (IllegalArgumentException exception) {
             throw new IllegalArgumentException("Not valid UUID provided as Id");
         }
     }
 
+    public static Id from(UUID uuid) {
+        checkArgument(nonNull(uuid), "uuid is null");
+        return new Id(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    public static Id fromBytes(byte[] bytes) {
+        checkArgument(nonNull(bytes) && bytes.length == BYTES, "Id has to be %s bytes long", BYTES);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new Id(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * Generates a time ordered UUIDv7, so ids created later sort after earlier ones and index inserts stay append-mostly.
+     */
     public static Id generate() {
-        return new Id(UUID.randomUUID().toString());
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long unixMillis = System.currentTimeMillis();
+        long mostSignificantBits = (unixMillis << 16) | VERSION_7 | (random.nextLong() & 0x0FFFL);
+        long leastSignificantBits = VARIANT_RFC_4122 | (random.nextLong() >>> 2);
+        return new Id(mostSignificantBits, leastSignificantBits);
+    }
+
+    public UUID asUuid() {
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    public byte[] asBytes() {
+        return ByteBuffer.allocate(BYTES)
+                .putLong(mostSignificantBits)
+                .putLong(leastSignificantBits)
+                .array();
     }
 
     public String asString() {
-        return value;
+        return asUuid().toString();
+    }
+
+    @Override
+    public String toString() {
+        return asString();
     }
 
 }
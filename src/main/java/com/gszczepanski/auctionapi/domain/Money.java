@@ -1,45 +1,103 @@
 package com.gszczepanski.auctionapi.domain;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.EnumMap;
+import java.util.Map;
 
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Value;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static java.util.Objects.nonNull;
+import static lombok.AccessLevel.NONE;
 import static lombok.AccessLevel.PRIVATE;
 
+/**
+ * Amount kept as a long number of minor units (cents), matching the NUMERIC(20,2) columns. {@link BigDecimal} is only
+ * used when converting from and to the outside world.
+ */
 @Value
 @RequiredArgsConstructor(access = PRIVATE)
 public class Money {
 
-    private final BigDecimal amount;
+    public static final int SCALE = 2;
+
+    private static final Map<Currency, Money> ZEROS = new EnumMap<>(Currency.class);
+
+    static {
+        for (Currency currency : Currency.values()) {
+            ZEROS.put(currency, new Money(0L, currency));
+        }
+    }
+
+    @Getter(NONE)
+    private final long minorUnits;
 
     private final Currency currency;
 
     public static Money from(String amount, Currency currency) {
         checkArgument(!isNullOrEmpty(amount), "Amount is empty");
-        checkArgument(nonNull(currency), "Currency is null");
-        return new Money(new BigDecimal(amount), currency);
+        return from(new BigDecimal(amount), currency);
     }
 
     public static Money from(BigDecimal amount, Currency currency) {
         checkArgument(nonNull(amount), "Amount is null");
         checkArgument(nonNull(currency), "Currency is null");
-        return new Money(amount, currency);
+        try {
+            return ofMinorUnits(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact(), currency);
+        } catch (ArithmeticException exception) {
+            throw new IllegalArgumentException("Amount has to have at most " + SCALE + " decimal places and fit in minor units range");
+        }
+    }
+
+    public static Money ofMinorUnits(long minorUnits, Currency currency) {
+        checkArgument(nonNull(currency), "Currency is null");
+        return minorUnits == 0L ? ZEROS.get(currency) : new Money(minorUnits, currency);
+    }
+
+    public static Money zero(Currency currency) {
+        checkArgument(nonNull(currency), "Currency is null");
+        return ZEROS.get(currency);
+    }
+
+    public BigDecimal getAmount() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
     }
 
     public Money add(Money money) {
-        checkArgument(nonNull(money), "Money is null");
-        checkArgument(money.getCurrency() == currency, "Currency does not match");
-        return Money.from(amount.add(money.amount), currency);
+        checkSameCurrency(money);
+        return ofMinorUnits(Math.addExact(minorUnits, money.minorUnits), currency);
     }
 
     public Money subtract(Money money) {
+        checkSameCurrency(money);
+        return ofMinorUnits(Math.subtractExact(minorUnits, money.minorUnits), currency);
+    }
+
+    public boolean isGreaterThan(Money money) {
+        checkSameCurrency(money);
+        return minorUnits > money.minorUnits;
+    }
+
+    public boolean isGreaterThanOrEqualTo(Money money) {
+        checkSameCurrency(money);
+        return minorUnits >= money.minorUnits;
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    private void checkSameCurrency(Money money) {
         checkArgument(nonNull(money), "Money is null");
-        checkArgument(money.getCurrency() == currency, "Currency does not match");
-        return Money.from(amount.subtract(money.amount), currency);
+        checkArgument(money.currency == currency, "Currency does not match");
     }
 
     public enum Currency {
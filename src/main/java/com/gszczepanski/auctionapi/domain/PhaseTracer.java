@@ -0,0 +1,260 @@
+package com.gszczepanski.auctionapi.domain;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.nonNull;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Breaks sampled hot path calls down into phases. A trace is bound to the thread that started it; every
+ * {@link #mark(Phase)} on that thread adds the time elapsed since the previous mark to the given phase, so code deep
+ * in the call, e.g. a repository, can attribute its share without the trace being passed around. Without an active
+ * trace a mark costs one thread local read.
+ * <p>
+ * Finished traces are kept in fixed size ring buffers, one per stripe of threads, overwriting the oldest ones.
+ * Writers claim a slot with a single atomic increment and never block.
+ */
+@Component
+public class PhaseTracer {
+
+    private static final Trace NOT_SAMPLED = () -> {
+    };
+
+    private final ThreadLocal<ActiveTrace> current = new ThreadLocal<>();
+
+    private final double sampleRate;
+
+    private final RingBuffer[] stripes;
+
+    public PhaseTracer(@Value("${auction.tracing.sample-rate:0.01}") double sampleRate,
+                       @Value("${auction.tracing.buffer-size:4096}") int bufferSize) {
+        checkArgument(sampleRate >= 0 && sampleRate <= 1, "sampleRate must be between 0 and 1");
+        checkArgument(bufferSize > 0, "bufferSize must be positive");
+
+        this.sampleRate = sampleRate;
+        int stripesCount = Math.min(powerOfTwoAtLeast(Runtime.getRuntime().availableProcessors()), powerOfTwoAtLeast(bufferSize));
+        this.stripes = new RingBuffer[stripesCount];
+        for (int index = 0; index < stripesCount; index++) {
+            stripes[index] = new RingBuffer(powerOfTwoAtLeast((bufferSize + stripesCount - 1) / stripesCount));
+        }
+    }
+
+    /**
+     * Starts a trace on the current thread, or returns one doing nothing when the call is not sampled or a trace is
+     * already active on the thread. The trace has to be closed on the same thread.
+     */
+    public Trace start(String operation, String subject) {
+        checkArgument(nonNull(operation), "operation is null");
+
+        if (!isSampled() || nonNull(current.get())) {
+            return NOT_SAMPLED;
+        }
+        ActiveTrace trace = new ActiveTrace(operation, subject);
+        current.set(trace);
+        return trace;
+    }
+
+    /**
+     * Runs the call within a trace started by {@link #start(String, String)}, closing it when the call returns or
+     * throws.
+     */
+    public <T> T trace(String operation, String subject, Supplier<T> call) {
+        checkArgument(nonNull(call), "call is null");
+
+        Trace trace = start(operation, subject);
+        try {
+            return call.get();
+        } finally {
+            trace.close();
+        }
+    }
+
+    public void trace(String operation, String subject, Runnable call) {
+        checkArgument(nonNull(call), "call is null");
+
+        trace(operation, subject, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public void mark(Phase phase) {
+        ActiveTrace trace = current.get();
+        if (nonNull(trace)) {
+            trace.mark(phase);
+        }
+    }
+
+    /**
+     * @return the slowest traces still held by the buffers, slowest first
+     */
+    public List<TraceRecord> slowest(int limit, Optional<String> operation) {
+        checkArgument(limit > 0, "limit must be positive");
+        checkArgument(nonNull(operation), "operation is null");
+
+        List<TraceRecord> records = new ArrayList<>();
+        for (RingBuffer stripe : stripes) {
+            stripe.collectInto(records);
+        }
+        return records.stream()
+                .filter(record -> operation.map(record.getOperation()::equals).orElse(true))
+                .sorted(Comparator.comparingLong(TraceRecord::getTotalNanos).reversed())
+                .limit(limit)
+                .collect(toList());
+    }
+
+    private boolean isSampled() {
+        return sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    private void record(TraceRecord record) {
+        stripes[(int) (Thread.currentThread().getId() & (stripes.length - 1))].add(record);
+    }
+
+    private static int powerOfTwoAtLeast(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    public enum Phase {
+
+        /**
+         * Waiting for the auction lock, or for a batch placed by another thread.
+         */
+        QUEUE,
+        LOOKUP,
+        MAP,
+        RESTORE,
+        DOMAIN,
+        WRITE,
+        PUBLISH,
+        /**
+         * Flush and commit, including after commit callbacks.
+         */
+        COMMIT
+
+    }
+
+    public interface Trace extends AutoCloseable {
+
+        @Override
+        void close();
+
+    }
+
+    public static final class TraceRecord {
+
+        @Getter
+        private final String operation;
+
+        @Getter
+        private final String subject;
+
+        @Getter
+        private final Instant startTime;
+
+        @Getter
+        private final long totalNanos;
+
+        private final long[] phaseNanos;
+
+        private TraceRecord(String operation, String subject, Instant startTime, long totalNanos, long[] phaseNanos) {
+            this.operation = operation;
+            this.subject = subject;
+            this.startTime = startTime;
+            this.totalNanos = totalNanos;
+            this.phaseNanos = phaseNanos;
+        }
+
+        public long getPhaseNanos(Phase phase) {
+            return phaseNanos[phase.ordinal()];
+        }
+
+        /**
+         * Time not covered by any mark, e.g. spent after the last one.
+         */
+        public long getUnattributedNanos() {
+            long attributed = 0;
+            for (long nanos : phaseNanos) {
+                attributed += nanos;
+            }
+            return totalNanos - attributed;
+        }
+
+    }
+
+    private final class ActiveTrace implements Trace {
+
+        private final String operation;
+
+        private final String subject;
+
+        private final long startMillis = System.currentTimeMillis();
+
+        private final long startNanos = System.nanoTime();
+
+        private final long[] phaseNanos = new long[Phase.values().length];
+
+        private long lapStartNanos = startNanos;
+
+        private ActiveTrace(String operation, String subject) {
+            this.operation = operation;
+            this.subject = subject;
+        }
+
+        private void mark(Phase phase) {
+            long now = System.nanoTime();
+            phaseNanos[phase.ordinal()] += now - lapStartNanos;
+            lapStartNanos = now;
+        }
+
+        @Override
+        public void close() {
+            if (current.get() != this) {
+                return;
+            }
+            current.remove();
+            record(new TraceRecord(operation, subject, Instant.ofEpochMilli(startMillis), System.nanoTime() - startNanos, phaseNanos));
+        }
+
+    }
+
+    private static final class RingBuffer {
+
+        private final AtomicReferenceArray<TraceRecord> slots;
+
+        private final AtomicLong sequence = new AtomicLong();
+
+        private RingBuffer(int capacity) {
+            this.slots = new AtomicReferenceArray<>(capacity);
+        }
+
+        private void add(TraceRecord record) {
+            slots.set((int) (sequence.getAndIncrement() & (slots.length() - 1)), record);
+        }
+
+        private void collectInto(List<TraceRecord> records) {
+            for (int index = 0; index < slots.length(); index++) {
+                TraceRecord record = slots.get(index);
+                if (nonNull(record)) {
+                    records.add(record);
+                }
+            }
+        }
+
+    }
+
+}
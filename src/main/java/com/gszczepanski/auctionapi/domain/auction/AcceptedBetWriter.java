@@ -0,0 +1,22 @@
+package com.gszczepanski.auctionapi.domain.auction;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResult;
+
+public interface AcceptedBetWriter {
+
+    /**
+     * Persists the bet of a successful result, the bet operation event of any result is published once it is
+     * persisted.
+     *
+     * @return a future completed once the bet is durable enough to be acknowledged to the bidder
+     */
+    CompletableFuture<Void> write(AuctionSnapshot auction, PlaceBetResult result);
+
+    /**
+     * @return a future completed once every bet written so far is persisted or dropped
+     */
+    CompletableFuture<Void> flush();
+
+}
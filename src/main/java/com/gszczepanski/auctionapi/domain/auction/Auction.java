@@ -1,9 +1,6 @@
 package com.gszczepanski.auctionapi.domain.auction;
 
-import java.math.BigDecimal;
 import java.time.OffsetDateTime;
-import java.util.Deque;
-import java.util.LinkedList;
 import java.util.Optional;
 
 import com.gszczepanski.auctionapi.domain.Id;
@@ -26,8 +23,6 @@ import static com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResultS
 import static com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResultStatus.FAILURE_PRICE_TOO_LOW;
 import static com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResultStatus.SUCCESS;
 import static java.util.Objects.nonNull;
-import static java.util.stream.Collectors.toCollection;
-import static java.util.stream.Collectors.toList;
 import static lombok.AccessLevel.NONE;
 import static lombok.AccessLevel.PRIVATE;
 
@@ -46,11 +41,13 @@ public class Auction {
     private final OffsetDateTime endDate;
 
     @Getter(NONE)
-    private final Deque<Bet> bets;
+    private Bet topBet;
+
+    private int betsCount;
 
     private final OffsetDateTime creationTime;
 
-    private final int version;
+    private int version;
 
     private AuctionStatus status;
 
@@ -64,7 +61,8 @@ public class Auction {
                 specification.getMinimalPrice(),
                 specification.getStartDate(),
                 specification.getEndDate(),
-                new LinkedList<>(),
+                null,
+                0,
                 time.now(),
                 0,
                 NOT_STARTED
@@ -76,17 +74,14 @@ public class Auction {
 
         // TODO validate snapshot data
 
-        Deque<Bet> bets = snapshot.getBets().stream()
-                .map(Bet::fromSnapshot)
-                .collect(toCollection(LinkedList::new));
-
         return new Auction(
                 snapshot.getId(),
                 snapshot.getCode(),
                 snapshot.getMinimalPrice(),
                 snapshot.getStartDate(),
                 snapshot.getEndDate(),
-                bets,
+                snapshot.getTopBet().map(Bet::fromSnapshot).orElse(null),
+                snapshot.getBetsCount(),
                 snapshot.getCreationTime(),
                 snapshot.getVersion(),
                 snapshot.getStatus()
@@ -116,7 +111,7 @@ public class Auction {
 
     boolean isEligibleForFinishing(Time time) {
         checkArgument(nonNull(time), "time is null");
-        return status == STARTED && time.now().compareTo(endDate) == 1;
+        return status == STARTED && time.now().isAfter(endDate);
     }
 
     PlaceBetResult placeBet(PlaceBetSpecification specification, Time time) {
@@ -131,25 +126,28 @@ public class Auction {
             return PlaceBetResult.failureResult(FAILURE_AUCTION_FINISHED, specification);
         }
 
-        Optional<Bet> maybeLastBet = getLastBet();
-        if (maybeLastBet.isEmpty()) {
+        if (topBet == null) {
             if (isBetCandidatePriceHigherOrEqualMinimalPrice(specification)) {
                 return addNewTopBet(specification, time);
             }
             return PlaceBetResult.failureResult(FAILURE_PRICE_LOWER_THAN_MINIMAL_PRICE, specification);
         }
 
-        Bet lastBet = maybeLastBet.get();
-        if (isBetCandidatePriceHigherThanLastBetPrice(specification, lastBet)) {
+        if (isBetCandidatePriceHigherThanTopBetPrice(specification)) {
             return addNewTopBet(specification, time);
         }
         return PlaceBetResult.failureResult(FAILURE_PRICE_TOO_LOW, specification);
     }
 
+    /**
+     * Follows the version bump of a successful save, so snapshots taken afterwards carry the stored version.
+     */
+    void advanceVersion() {
+        version++;
+    }
+
     Money currentAuctionedPrice() {
-        return getLastBet()
-                .map(Bet::getPrice)
-                .orElseGet(() -> Money.from(BigDecimal.ZERO, minimalPrice.getCurrency()));
+        return topBet == null ? Money.zero(minimalPrice.getCurrency()) : topBet.getPrice();
     }
 
     public AuctionSnapshot asSnapshot() {
@@ -162,26 +160,25 @@ public class Auction {
                 .currentAuctionedPrice(currentAuctionedPrice())
                 .version(version)
                 .status(status)
-                .bets(
-                        bets.stream()
-                                .map(Bet::asSnapshot)
-                                .collect(toList())
-                )
+                .creationTime(creationTime)
+                .topBet(topBet == null ? null : topBet.asSnapshot())
+                .betsCount(betsCount)
                 .build();
     }
 
     private PlaceBetResult addNewTopBet(PlaceBetSpecification specification, Time time) {
         final Bet bet = assembleBetFrom(specification, time);
-        bets.add(bet);
+        topBet = bet;
+        betsCount++;
         return PlaceBetResult.successResult(specification, bet.asSnapshot());
     }
 
-    private boolean isBetCandidatePriceHigherThanLastBetPrice(PlaceBetSpecification specification, Bet lastBet) {
-        return specification.getPrice().getAmount().compareTo(lastBet.getPrice().getAmount()) == 1;
+    private boolean isBetCandidatePriceHigherThanTopBetPrice(PlaceBetSpecification specification) {
+        return specification.getPrice().isGreaterThan(topBet.getPrice());
     }
 
     private boolean isBetCandidatePriceHigherOrEqualMinimalPrice(PlaceBetSpecification specification) {
-        return specification.getPrice().getAmount().compareTo(minimalPrice.getAmount()) > -1;
+        return specification.getPrice().isGreaterThanOrEqualTo(minimalPrice);
     }
 
     private Bet assembleBetFrom(PlaceBetSpecification specification, Time time) {
@@ -194,7 +191,7 @@ public class Auction {
     }
 
     Optional<Bet> getLastBet() {
-        return bets.isEmpty() ? Optional.empty() : Optional.of(bets.getLast());
+        return Optional.ofNullable(topBet);
     }
 
     public enum AuctionStatus {
@@ -206,7 +203,7 @@ public class Auction {
 
     }
 
-    enum PlaceBetResultStatus {
+    public enum PlaceBetResultStatus {
         SUCCESS,
         FAILURE_AUCTION_NOT_STARTED,
         FAILURE_AUCTION_FINISHED,
@@ -0,0 +1,14 @@
+package com.gszczepanski.auctionapi.domain.auction;
+
+import lombok.Value;
+
+/**
+ * Published by {@link Auctions} once an auction is created, {@link AuctionLifecycleScheduler} schedules its
+ * transitions after the creating transaction commits.
+ */
+@Value
+class AuctionCreated {
+
+    private final AuctionSnapshot auction;
+
+}
@@ -1,6 +1,9 @@
 package com.gszczepanski.auctionapi.domain.auction;
 
+import java.util.List;
+
 import com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResult;
+import lombok.Value;
 
 public interface AuctionEventPublisher {
 
@@ -10,6 +13,24 @@ public interface AuctionEventPublisher {
 
     void publishAuctionFinished(AuctionSnapshot snapshot);
 
+    void publishAuctionsStarted(List<AuctionSnapshot> snapshots);
+
+    void publishAuctionsFinished(List<AuctionSnapshot> snapshots);
+
     void publishBetOperationPerformed(AuctionSnapshot snapshot, PlaceBetResult placeBetResult);
 
+    void publishBetOperationsPerformed(List<BetOperation> operations);
+
+    /**
+     * A bet placed on an auction, with the auction as it was right after the bet.
+     */
+    @Value
+    class BetOperation {
+
+        private final AuctionSnapshot snapshot;
+
+        private final PlaceBetResult placeBetResult;
+
+    }
+
 }
@@ -0,0 +1,167 @@
+package com.gszczepanski.auctionapi.domain.auction;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.gszczepanski.auctionapi.domain.Time;
+import com.gszczepanski.auctionapi.domain.auction.AuctionRepository.AuctionQuery;
+import lombok.extern.slf4j.Slf4j;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.gszczepanski.auctionapi.domain.auction.Auction.AuctionStatus.NOT_STARTED;
+import static com.gszczepanski.auctionapi.domain.auction.Auction.AuctionStatus.STARTED;
+import static java.util.Objects.nonNull;
+
+/**
+ * Fires auction start and finish transitions at the instants they become due. Pending transitions are kept in the
+ * delay queue of a single-threaded scheduled executor, which is rebuilt with an eligibility sweep after a restart.
+ * A failing transition is retried with exponential backoff a limited number of times, after that it is left to the
+ * eligibility sweep that runs periodically.
+ * <p>
+ * New auctions are scheduled from the {@link AuctionCreated} event after their transaction commits, so
+ * {@link Auctions} does not depend on the scheduler.
+ */
+@Slf4j
+@Component
+public class AuctionLifecycleScheduler {
+
+    private final Auctions auctions;
+
+    private final AuctionRepository auctionRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Time time;
+
+    private final boolean enabled;
+
+    private final Duration retryDelay;
+
+    private final int maxAttempts;
+
+    private final Duration sweepInterval;
+
+    private final ScheduledExecutorService executor;
+
+    public AuctionLifecycleScheduler(Auctions auctions,
+                                     AuctionRepository auctionRepository,
+                                     TransactionTemplate transactionTemplate,
+                                     Time time,
+                                     @Value("${auction.lifecycle.scheduler.enabled:true}") boolean enabled,
+                                     @Value("${auction.lifecycle.scheduler.retry-delay:1s}") Duration retryDelay,
+                                     @Value("${auction.lifecycle.scheduler.max-attempts:5}") int maxAttempts,
+                                     @Value("${auction.lifecycle.scheduler.sweep-interval:1m}") Duration sweepInterval) {
+        checkArgument(!retryDelay.isNegative() && !retryDelay.isZero(), "retryDelay must be positive");
+        checkArgument(maxAttempts > 0, "maxAttempts must be positive");
+        checkArgument(!sweepInterval.isNegative() && !sweepInterval.isZero(), "sweepInterval must be positive");
+
+        this.auctions = auctions;
+        this.auctionRepository = auctionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.transactionTemplate.setReadOnly(true);
+        this.time = time;
+        this.enabled = enabled;
+        this.retryDelay = retryDelay;
+        this.maxAttempts = maxAttempts;
+        this.sweepInterval = sweepInterval;
+
+        ScheduledThreadPoolExecutor scheduledExecutor = new ScheduledThreadPoolExecutor(
+                1,
+                new ThreadFactoryBuilder().setNameFormat("auction-lifecycle-scheduler").setDaemon(true).build()
+        );
+        scheduledExecutor.setRemoveOnCancelPolicy(true);
+        this.executor = scheduledExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void recover() {
+        if (!enabled) {
+            return;
+        }
+        auctions.startEligibleAuctions();
+        auctions.finishEligibleAuctions();
+
+        AuctionQuery query = AuctionQuery.builder().statuses(List.of(NOT_STARTED, STARTED)).build();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<AuctionSnapshot> pendingAuctions = auctionRepository.streamAll(query)) {
+                pendingAuctions.forEach(this::scheduleNow);
+            }
+        });
+        log.info("Scheduled lifecycle transitions for pending auctions");
+
+        executor.scheduleWithFixedDelay(this::sweep, sweepInterval.toNanos(), sweepInterval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onAuctionCreated(AuctionCreated event) {
+        schedule(event.getAuction());
+    }
+
+    void schedule(AuctionSnapshot auction) {
+        checkArgument(nonNull(auction), "auction is null");
+        if (!enabled) {
+            return;
+        }
+        scheduleNow(auction);
+    }
+
+    private void scheduleNow(AuctionSnapshot auction) {
+        if (auction.getStatus() == NOT_STARTED) {
+            scheduleAt(auction.getStartDate(), auction.getCode(), auctions::startAuction);
+        } else if (auction.getStatus() == STARTED) {
+            scheduleAt(auction.getEndDate().plusNanos(1), auction.getCode(), auctions::finishAuction);
+        }
+    }
+
+    private void scheduleAt(OffsetDateTime instant, String auctionCode, Function<String, Optional<AuctionSnapshot>> transition) {
+        long delayInNanos = Math.max(0, Duration.between(time.now(), instant).toNanos());
+        executor.schedule(() -> fire(auctionCode, transition, 1), delayInNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void fire(String auctionCode, Function<String, Optional<AuctionSnapshot>> transition, int attempt) {
+        try {
+            transition.apply(auctionCode).ifPresent(this::scheduleNow);
+        } catch (RuntimeException exception) {
+            if (attempt >= maxAttempts) {
+                log.warn("Lifecycle transition failed for auction {} {} times, leaving it to the periodic sweep",
+                        auctionCode, attempt, exception);
+                return;
+            }
+            Duration delay = retryDelay.multipliedBy(1L << Math.min(attempt - 1, 16));
+            log.warn("Lifecycle transition failed for auction {}, attempt {} of {}, retrying in {}: {}",
+                    auctionCode, attempt, maxAttempts, delay, exception.toString());
+            executor.schedule(() -> fire(auctionCode, transition, attempt + 1), delay.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void sweep() {
+        try {
+            auctions.startEligibleAuctions();
+            auctions.finishEligibleAuctions();
+        } catch (RuntimeException exception) {
+            log.warn("Periodic lifecycle sweep failed, retrying in {}", sweepInterval, exception);
+        }
+    }
+
+}
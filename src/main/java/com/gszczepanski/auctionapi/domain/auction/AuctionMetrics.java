@@ -0,0 +1,35 @@
+package com.gszczepanski.auctionapi.domain.auction;
+
+import java.time.Duration;
+
+import com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResultStatus;
+
+public interface AuctionMetrics {
+
+    void recordBetPlaced(PlaceBetResultStatus status, long durationNanos);
+
+    void recordBetFailed(long durationNanos);
+
+    void recordOptimisticLockConflict();
+
+    void recordSweep(LifecycleTransition transition, long durationNanos);
+
+    void recordSweepBatch(LifecycleTransition transition, int auctions);
+
+    void recordFinishedAuction(AuctionSnapshot auction);
+
+    /**
+     * @param shape names of the criteria the query was made with, see {@link AuctionRepository.AuctionQuery#shape()}
+     */
+    void recordQuery(String operation, String shape, long durationNanos);
+
+    void recordEventPublishLag(String eventType, Duration lag);
+
+    enum LifecycleTransition {
+
+        START,
+        FINISH
+
+    }
+
+}
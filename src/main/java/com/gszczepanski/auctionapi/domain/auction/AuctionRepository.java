@@ -1,28 +1,52 @@
 package com.gszczepanski.auctionapi.domain.auction;
 
+import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.stream.Stream;
 
+import com.gszczepanski.auctionapi.domain.Id;
 import com.gszczepanski.auctionapi.domain.auction.Auction.AuctionStatus;
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot.BetSnapshot;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Value;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Strings.isNullOrEmpty;
+import static java.util.Objects.nonNull;
 import static lombok.AccessLevel.NONE;
 
 public interface AuctionRepository {
 
     AuctionSnapshot save(AuctionSnapshot auction);
 
+    void saveHeader(AuctionSnapshot auction);
+
+    void appendBet(AuctionSnapshot auction, BetSnapshot bet);
+
+    List<AuctionSnapshot> startEligible(OffsetDateTime startDateTo, int limit);
+
+    List<AuctionSnapshot> finishEligible(OffsetDateTime endDateBefore, int limit);
+
     Optional<AuctionSnapshot> findOne(AuctionQuery query);
 
     List<AuctionSnapshot> findAll(AuctionQuery query);
 
+    /**
+     * Bets of one auction in placement order, a page at a time, see {@link BetHistoryQuery#nextPageAfter(BetSnapshot)}.
+     */
+    List<BetSnapshot> findBets(BetHistoryQuery query);
+
+    /**
+     * Streams auction headers only, bets are not loaded. The stream has to be consumed within a transaction and closed.
+     */
+    Stream<AuctionSnapshot> streamAll(AuctionQuery query);
+
     @Value
-    @Builder
+    @Builder(toBuilder = true)
     class AuctionQuery {
 
         @Getter(NONE)
@@ -31,6 +55,18 @@ public interface AuctionRepository {
         @Builder.Default
         private final List<AuctionStatus> statuses = Arrays.asList(AuctionStatus.values());
 
+        @Getter(NONE)
+        private final OffsetDateTime startDateTo;
+
+        @Getter(NONE)
+        private final OffsetDateTime endDateBefore;
+
+        @Getter(NONE)
+        private final Id afterId;
+
+        @Getter(NONE)
+        private final Integer limit;
+
         public static AuctionQuery queryForCode(String code) {
             checkArgument(!isNullOrEmpty(code), "Code is empty");
             return AuctionQuery.builder().code(code).build();
@@ -40,5 +76,99 @@ public interface AuctionRepository {
             return Optional.ofNullable(code);
         }
 
+        public Optional<OffsetDateTime> getStartDateTo() {
+            return Optional.ofNullable(startDateTo);
+        }
+
+        public Optional<OffsetDateTime> getEndDateBefore() {
+            return Optional.ofNullable(endDateBefore);
+        }
+
+        public Optional<Id> getAfterId() {
+            return Optional.ofNullable(afterId);
+        }
+
+        public Optional<Integer> getLimit() {
+            return Optional.ofNullable(limit);
+        }
+
+        public AuctionQuery nextChunkAfter(Id lastId) {
+            checkArgument(nonNull(lastId), "lastId is null");
+            return toBuilder().afterId(lastId).build();
+        }
+
+        /**
+         * Names of the criteria set on this query, e.g. {@code code} or {@code statuses,afterId,limit}. Statuses count
+         * only when narrowed down from all of them. Unlike the query itself it has a small set of values.
+         */
+        public String shape() {
+            StringJoiner shape = new StringJoiner(",");
+            if (nonNull(code)) {
+                shape.add("code");
+            }
+            if (statuses.size() != AuctionStatus.values().length) {
+                shape.add("statuses");
+            }
+            if (nonNull(startDateTo)) {
+                shape.add("startDateTo");
+            }
+            if (nonNull(endDateBefore)) {
+                shape.add("endDateBefore");
+            }
+            if (nonNull(afterId)) {
+                shape.add("afterId");
+            }
+            if (nonNull(limit)) {
+                shape.add("limit");
+            }
+            return shape.length() == 0 ? "all" : shape.toString();
+        }
+
+    }
+
+    @Value
+    @Builder(toBuilder = true)
+    class BetHistoryQuery {
+
+        public static final int DEFAULT_LIMIT = 50;
+
+        private final Id auctionId;
+
+        @Getter(NONE)
+        private final OffsetDateTime afterCreationTime;
+
+        @Getter(NONE)
+        private final Id afterId;
+
+        @Builder.Default
+        private final int limit = DEFAULT_LIMIT;
+
+        public static BetHistoryQuery firstPage(Id auctionId, int limit) {
+            checkArgument(nonNull(auctionId), "auctionId is null");
+            checkArgument(limit > 0, "limit must be positive");
+            return BetHistoryQuery.builder().auctionId(auctionId).limit(limit).build();
+        }
+
+        public Optional<OffsetDateTime> getAfterCreationTime() {
+            return Optional.ofNullable(afterCreationTime);
+        }
+
+        public Optional<Id> getAfterId() {
+            return Optional.ofNullable(afterId);
+        }
+
+        /**
+         * Keyset on {@code (creation_time, id)}, so a page costs the same no matter how deep into the history it is.
+         */
+        public BetHistoryQuery nextPageAfter(BetSnapshot lastBet) {
+            checkArgument(nonNull(lastBet), "lastBet is null");
+            return toBuilder().afterCreationTime(lastBet.getCreationTime()).afterId(lastBet.getId()).build();
+        }
+
+        public String shape() {
+            return nonNull(afterId) ? "auctionId,after,limit" : "auctionId,limit";
+        }
+
     }
+
 }
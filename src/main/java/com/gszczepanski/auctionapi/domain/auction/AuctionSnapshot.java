@@ -4,13 +4,20 @@ package com.gszczepanski.auctionapi.domain.auction;
 import com.gszczepanski.auctionapi.domain.Id;
 import com.gszczepanski.auctionapi.domain.Money;
 import lombok.Builder;
+import lombok.Getter;
 import lombok.Value;
 
 import java.time.OffsetDateTime;
-import java.util.List;
+import java.util.Optional;
 
+import static lombok.AccessLevel.NONE;
+
+/**
+ * Auction header with its top bet and bets count. Bet history is read separately, see
+ * {@link AuctionRepository#findBets(AuctionRepository.BetHistoryQuery)}.
+ */
 @Value
-@Builder
+@Builder(toBuilder = true)
 public class AuctionSnapshot {
 
     private final Id id;
@@ -25,7 +32,10 @@ public class AuctionSnapshot {
 
     private final OffsetDateTime endDate;
 
-    private final List<BetSnapshot> bets;
+    @Getter(NONE)
+    private final BetSnapshot topBet;
+
+    private final int betsCount;
 
     private final Auction.AuctionStatus status;
 
@@ -33,6 +43,10 @@ public class AuctionSnapshot {
 
     private final OffsetDateTime creationTime;
 
+    public Optional<BetSnapshot> getTopBet() {
+        return Optional.ofNullable(topBet);
+    }
+
     @Value
     @Builder
     public static class BetSnapshot {
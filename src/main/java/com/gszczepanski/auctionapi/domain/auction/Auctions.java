@@ -1,21 +1,36 @@
 package com.gszczepanski.auctionapi.domain.auction;
 
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.gszczepanski.auctionapi.domain.Id;
+import com.gszczepanski.auctionapi.domain.PhaseTracer;
 import com.gszczepanski.auctionapi.domain.Time;
 import com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResult;
-import com.gszczepanski.auctionapi.domain.auction.AuctionRepository.AuctionQuery;
+import com.gszczepanski.auctionapi.domain.auction.AuctionRepository.BetHistoryQuery;
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot.BetSnapshot;
 import lombok.RequiredArgsConstructor;
 
 import static com.google.common.base.Preconditions.checkArgument;
-import static com.gszczepanski.auctionapi.domain.auction.Auction.AuctionStatus.NOT_STARTED;
-import static com.gszczepanski.auctionapi.domain.auction.Auction.AuctionStatus.STARTED;
+import static com.gszczepanski.auctionapi.domain.PhaseTracer.Phase.COMMIT;
+import static com.gszczepanski.auctionapi.domain.PhaseTracer.Phase.DOMAIN;
+import static com.gszczepanski.auctionapi.domain.PhaseTracer.Phase.LOOKUP;
+import static com.gszczepanski.auctionapi.domain.PhaseTracer.Phase.PUBLISH;
+import static com.gszczepanski.auctionapi.domain.PhaseTracer.Phase.QUEUE;
+import static com.gszczepanski.auctionapi.domain.PhaseTracer.Phase.RESTORE;
+import static com.gszczepanski.auctionapi.domain.PhaseTracer.Phase.WRITE;
 import static com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResultStatus.SUCCESS;
+import static com.gszczepanski.auctionapi.domain.auction.AuctionMetrics.LifecycleTransition.FINISH;
+import static com.gszczepanski.auctionapi.domain.auction.AuctionMetrics.LifecycleTransition.START;
 import static com.gszczepanski.auctionapi.domain.auction.AuctionRepository.AuctionQuery.queryForCode;
 import static java.lang.String.format;
 import static java.util.Objects.nonNull;
@@ -25,12 +40,26 @@ import static java.util.Objects.nonNull;
 @RequiredArgsConstructor
 public class Auctions {
 
+    private static final int SWEEP_CHUNK_SIZE = 500;
+
     private final AuctionRepository auctionRepository;
 
     private final AuctionEventPublisher auctionEventPublisher;
 
     private final Time time;
 
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final BetCoalescer betCoalescer;
+
+    private final AuctionMetrics auctionMetrics;
+
+    private final PhaseTracer phaseTracer;
+
+    private final Optional<ShardedAuctionEngine> shardedAuctionEngine;
+
     public Id createAuction(CreateAuctionSpecification specification) {
         checkArgument(nonNull(specification), "specification is null");
 
@@ -38,50 +67,142 @@ public class Auctions {
         AuctionSnapshot auctionSnapshot = auction.asSnapshot();
         auctionRepository.save(auctionSnapshot);
         auctionEventPublisher.publishAuctionCreated(auctionSnapshot);
+        applicationEventPublisher.publishEvent(new AuctionCreated(auctionSnapshot));
 
         return auction.getId();
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void startEligibleAuctions() {
-        AuctionQuery query = AuctionQuery.builder().statuses(List.of(NOT_STARTED)).build();
-        List<AuctionSnapshot> auctions = auctionRepository.findAll(query);
-
-        auctions.stream()
-                .map(Auction::restoreFrom)
-                .filter(auction -> auction.isEligibleForStarting(time))
-                .forEach(auction -> {
-                    auction.startAuction(time);
-                    AuctionSnapshot auctionSnapshot = auction.asSnapshot();
-                    auctionRepository.save(auctionSnapshot);
-                    auctionEventPublisher.publishAuctionStarted(auctionSnapshot);
+        long start = System.nanoTime();
+        OffsetDateTime now = time.now();
+        phaseTracer.trace("startEligibleAuctions", null, () -> {
+            List<AuctionSnapshot> startedAuctions;
+            do {
+                startedAuctions = transactionTemplate.execute(status -> {
+                    List<AuctionSnapshot> auctions = auctionRepository.startEligible(now, SWEEP_CHUNK_SIZE);
+                    auctionEventPublisher.publishAuctionsStarted(auctions);
+                    phaseTracer.mark(PUBLISH);
+                    return auctions;
                 });
+                phaseTracer.mark(COMMIT);
+                auctionMetrics.recordSweepBatch(START, startedAuctions.size());
+            } while (!startedAuctions.isEmpty());
+        });
+        auctionMetrics.recordSweep(START, System.nanoTime() - start);
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void finishEligibleAuctions() {
-        AuctionQuery query = AuctionQuery.builder().statuses(List.of(STARTED)).build();
-        List<AuctionSnapshot> auctions = auctionRepository.findAll(query);
-
-        auctions.stream()
-                .map(Auction::restoreFrom)
-                .filter(auction -> auction.isEligibleForFinishing(time))
-                .forEach(auction -> {
-                    auction.finishAuction(time);
-                    AuctionSnapshot auctionSnapshot = auction.asSnapshot();
-                    auctionRepository.save(auctionSnapshot);
-                    auctionEventPublisher.publishAuctionFinished(auctionSnapshot);
+        long start = System.nanoTime();
+        OffsetDateTime now = time.now();
+        phaseTracer.trace("finishEligibleAuctions", null, () -> {
+            awaitPlacedBetsWritten();
+            List<AuctionSnapshot> finishedAuctions;
+            do {
+                finishedAuctions = transactionTemplate.execute(status -> {
+                    List<AuctionSnapshot> auctions = auctionRepository.finishEligible(now, SWEEP_CHUNK_SIZE);
+                    auctionEventPublisher.publishAuctionsFinished(auctions);
+                    phaseTracer.mark(PUBLISH);
+                    return auctions;
                 });
+                phaseTracer.mark(COMMIT);
+                auctionMetrics.recordSweepBatch(FINISH, finishedAuctions.size());
+                finishedAuctions.forEach(auctionMetrics::recordFinishedAuction);
+            } while (!finishedAuctions.isEmpty());
+        });
+        auctionMetrics.recordSweep(FINISH, System.nanoTime() - start);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<AuctionSnapshot> startAuction(String auctionCode) {
+        checkArgument(nonNull(auctionCode), "auctionCode is null");
+
+        return phaseTracer.trace("startAuction", auctionCode, () -> {
+            Optional<AuctionSnapshot> result = transactionTemplate.execute(status -> findAuction(auctionCode)
+                    .map(auction -> {
+                        if (auction.isEligibleForStarting(time)) {
+                            auction.startAuction(time);
+                            phaseTracer.mark(DOMAIN);
+                            auctionRepository.saveHeader(auction.asSnapshot());
+                            auction.advanceVersion();
+                            AuctionSnapshot auctionSnapshot = auction.asSnapshot();
+                            phaseTracer.mark(WRITE);
+                            auctionEventPublisher.publishAuctionStarted(auctionSnapshot);
+                            phaseTracer.mark(PUBLISH);
+                        }
+                        return auction.asSnapshot();
+                    }));
+            phaseTracer.mark(COMMIT);
+            return result;
+        });
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<AuctionSnapshot> finishAuction(String auctionCode) {
+        checkArgument(nonNull(auctionCode), "auctionCode is null");
+
+        return phaseTracer.trace("finishAuction", auctionCode, () -> {
+            awaitPlacedBetsWritten();
+            Optional<AuctionSnapshot> result = transactionTemplate.execute(status -> findAuction(auctionCode)
+                    .map(auction -> {
+                        if (auction.isEligibleForFinishing(time)) {
+                            auction.finishAuction(time);
+                            phaseTracer.mark(DOMAIN);
+                            auctionRepository.saveHeader(auction.asSnapshot());
+                            auction.advanceVersion();
+                            AuctionSnapshot auctionSnapshot = auction.asSnapshot();
+                            phaseTracer.mark(WRITE);
+                            auctionEventPublisher.publishAuctionFinished(auctionSnapshot);
+                            phaseTracer.mark(PUBLISH);
+                            auctionMetrics.recordFinishedAuction(auctionSnapshot);
+                        }
+                        return auction.asSnapshot();
+                    }));
+            phaseTracer.mark(COMMIT);
+            return result;
+        });
     }
 
+    /**
+     * In sharded engine mode bets are placed by {@link ShardedAuctionEngine} only, it records their metrics.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PlaceBetResult placeBet(PlaceBetSpecification specification) {
         checkArgument(nonNull(specification), "specification is null");
-        Auction auction = findAuctionByCode(specification);
 
-        PlaceBetResult result = auction.placeBet(specification, time);
-        if (result.getStatus() == SUCCESS) {
-            auctionRepository.save(auction.asSnapshot());
+        if (shardedAuctionEngine.isPresent()) {
+            return placeBetOnShard(shardedAuctionEngine.get(), specification);
+        }
+
+        long start = System.nanoTime();
+        try {
+            return phaseTracer.trace("placeBet", specification.getAuctionCode(), () -> {
+                PlaceBetResult result = betCoalescer.placeBet(specification, specifications -> {
+                    phaseTracer.mark(QUEUE);
+                    List<PlaceBetResult> results = transactionTemplate.execute(status -> placeBets(specifications));
+                    phaseTracer.mark(COMMIT);
+                    return results;
+                });
+                phaseTracer.mark(QUEUE);
+                auctionMetrics.recordBetPlaced(result.getStatus(), System.nanoTime() - start);
+                return result;
+            });
+        } catch (RuntimeException exception) {
+            auctionMetrics.recordBetFailed(System.nanoTime() - start);
+            throw exception;
+        }
+    }
+
+    private static PlaceBetResult placeBetOnShard(ShardedAuctionEngine engine, PlaceBetSpecification specification) {
+        try {
+            return engine.placeBet(specification).join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) exception.getCause();
+            }
+            throw exception;
         }
-        auctionEventPublisher.publishBetOperationPerformed(auction.asSnapshot(), result);
-        return result;
     }
 
     public Optional<AuctionSnapshot> findOne(String auctionCode) {
@@ -91,12 +212,48 @@ public class Auctions {
                 .map(Auction::asSnapshot);
     }
 
-    private Auction findAuctionByCode(PlaceBetSpecification specification) {
-        return auctionRepository.findOne(
-                queryForCode(specification.getAuctionCode())
-        )
-                .map(Auction::restoreFrom)
-                .orElseThrow(() -> new IllegalArgumentException(format("Auction not found for code %s", specification.getAuctionCode())));
+    public List<BetSnapshot> findBets(BetHistoryQuery query) {
+        checkArgument(nonNull(query), "query is null");
+        return auctionRepository.findBets(query);
+    }
+
+    private List<PlaceBetResult> placeBets(List<PlaceBetSpecification> specifications) {
+        String auctionCode = specifications.get(0).getAuctionCode();
+        Auction auction = findAuction(auctionCode)
+                .orElseThrow(() -> new IllegalArgumentException(format("Auction not found for code %s", auctionCode)));
+
+        List<PlaceBetResult> results = new ArrayList<>(specifications.size());
+        for (PlaceBetSpecification specification : specifications) {
+            PlaceBetResult result = auction.placeBet(specification, time);
+            phaseTracer.mark(DOMAIN);
+            if (result.getStatus() == SUCCESS) {
+                auctionRepository.appendBet(auction.asSnapshot(), result.getBetSnapshot().get());
+                auction.advanceVersion();
+                phaseTracer.mark(WRITE);
+            }
+            auctionEventPublisher.publishBetOperationPerformed(auction.asSnapshot(), result);
+            phaseTracer.mark(PUBLISH);
+            results.add(result);
+        }
+        return results;
+    }
+
+    /**
+     * The sharded engine accepts bets until an auction's end date and persists them later, they have to be written
+     * before the auction is finished from the database state. Bets applied after {@code now} was taken are rejected
+     * for auctions ending before it.
+     */
+    private void awaitPlacedBetsWritten() {
+        shardedAuctionEngine.ifPresent(ShardedAuctionEngine::awaitPlacedBetsWritten);
+        phaseTracer.mark(QUEUE);
+    }
+
+    private Optional<Auction> findAuction(String auctionCode) {
+        Optional<AuctionSnapshot> snapshot = auctionRepository.findOne(queryForCode(auctionCode));
+        phaseTracer.mark(LOOKUP);
+        Optional<Auction> auction = snapshot.map(Auction::restoreFrom);
+        phaseTracer.mark(RESTORE);
+        return auction;
     }
 
 }
@@ -0,0 +1,166 @@
+package com.gszczepanski.auctionapi.domain.auction;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResult;
+import lombok.RequiredArgsConstructor;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.nonNull;
+
+/**
+ * Places concurrent bets on one auction as batches instead of letting them race for the auction version. Bets wait
+ * on a lock per auction code; the thread holding it drains every bet queued so far and places them highest first in
+ * one go, so at most one of them is written and the rest are rejected against the new top bet without touching the
+ * auction. Batches failing on an optimistic lock conflict, e.g. with a lifecycle sweep or another node, are retried
+ * with jittered exponential backoff.
+ */
+@Component
+class BetCoalescer {
+
+    private static final Comparator<PendingBet> HIGHEST_PRICE_FIRST =
+            Comparator.comparingLong((PendingBet bet) -> bet.specification.getPrice().getMinorUnits()).reversed();
+
+    private static final int MAX_BACKOFF_DOUBLINGS = 10;
+
+    private final ConcurrentMap<String, AuctionBets> auctionBets = new ConcurrentHashMap<>();
+
+    private final int maxAttempts;
+
+    private final long baseBackoffNanos;
+
+    private final AuctionMetrics auctionMetrics;
+
+    BetCoalescer(@Value("${auction.bets.retry.max-attempts:5}") int maxAttempts,
+                 @Value("${auction.bets.retry.base-backoff:2ms}") Duration baseBackoff,
+                 AuctionMetrics auctionMetrics) {
+        checkArgument(maxAttempts > 0, "maxAttempts must be positive");
+        checkArgument(nonNull(baseBackoff) && !baseBackoff.isNegative(), "baseBackoff must not be negative");
+
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffNanos = baseBackoff.toNanos();
+        this.auctionMetrics = auctionMetrics;
+    }
+
+    /**
+     * @param placer places bets in the given order within one transaction and returns results in the same order
+     */
+    PlaceBetResult placeBet(PlaceBetSpecification specification,
+                            Function<List<PlaceBetSpecification>, List<PlaceBetResult>> placer) {
+        checkArgument(nonNull(specification), "specification is null");
+        checkArgument(nonNull(placer), "placer is null");
+
+        String auctionCode = specification.getAuctionCode();
+        PendingBet bet = new PendingBet(specification);
+        AuctionBets bets = auctionBets.compute(auctionCode, (code, current) -> {
+            AuctionBets result = nonNull(current) ? current : new AuctionBets();
+            result.waiting++;
+            result.queued.add(bet);
+            return result;
+        });
+
+        bets.lock.lock();
+        try {
+            if (!bet.isPlaced()) {
+                placeQueuedBets(auctionCode, placer);
+            }
+        } finally {
+            bets.lock.unlock();
+            auctionBets.computeIfPresent(auctionCode, (code, current) -> --current.waiting == 0 ? null : current);
+        }
+        return bet.result();
+    }
+
+    private void placeQueuedBets(String auctionCode,
+                                 Function<List<PlaceBetSpecification>, List<PlaceBetResult>> placer) {
+        List<PendingBet> batch = new ArrayList<>();
+        auctionBets.computeIfPresent(auctionCode, (code, current) -> {
+            batch.addAll(current.queued);
+            current.queued.clear();
+            return current;
+        });
+        batch.sort(HIGHEST_PRICE_FIRST);
+
+        List<PlaceBetSpecification> specifications = new ArrayList<>(batch.size());
+        batch.forEach(pendingBet -> specifications.add(pendingBet.specification));
+        try {
+            List<PlaceBetResult> results = placeWithRetry(specifications, placer);
+            checkState(results.size() == batch.size(), "placer returned %s results for %s bets", results.size(), batch.size());
+            for (int index = 0; index < batch.size(); index++) {
+                batch.get(index).placed = results.get(index);
+            }
+        } catch (RuntimeException exception) {
+            batch.forEach(pendingBet -> pendingBet.failure = exception);
+        }
+    }
+
+    private List<PlaceBetResult> placeWithRetry(List<PlaceBetSpecification> specifications,
+                                                Function<List<PlaceBetSpecification>, List<PlaceBetResult>> placer) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return placer.apply(specifications);
+            } catch (OptimisticLockingFailureException exception) {
+                auctionMetrics.recordOptimisticLockConflict();
+                if (attempt >= maxAttempts) {
+                    throw exception;
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    private void backOff(int attempt) {
+        long ceilingNanos = baseBackoffNanos << Math.min(attempt - 1, MAX_BACKOFF_DOUBLINGS);
+        LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(ceilingNanos + 1));
+    }
+
+    private static final class AuctionBets {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final List<PendingBet> queued = new ArrayList<>();
+
+        private int waiting;
+
+    }
+
+    /**
+     * Outcome fields are written and read under the auction lock.
+     */
+    @RequiredArgsConstructor
+    private static final class PendingBet {
+
+        private final PlaceBetSpecification specification;
+
+        private PlaceBetResult placed;
+
+        private RuntimeException failure;
+
+        private boolean isPlaced() {
+            return nonNull(placed) || nonNull(failure);
+        }
+
+        private PlaceBetResult result() {
+            if (nonNull(failure)) {
+                throw failure;
+            }
+            return placed;
+        }
+
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.gszczepanski.auctionapi.domain.auction;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResult;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Hands every auction event to all other {@link AuctionEventPublisher} beans, e.g. the outbox and live feeds.
+ */
+@Primary
+@Component
+@RequiredArgsConstructor
+class CompositeAuctionEventPublisher implements AuctionEventPublisher {
+
+    private final List<AuctionEventPublisher> publishers;
+
+    @Override
+    public void publishAuctionCreated(AuctionSnapshot snapshot) {
+        publishers.forEach(publisher -> publisher.publishAuctionCreated(snapshot));
+    }
+
+    @Override
+    public void publishAuctionStarted(AuctionSnapshot snapshot) {
+        publishers.forEach(publisher -> publisher.publishAuctionStarted(snapshot));
+    }
+
+    @Override
+    public void publishAuctionFinished(AuctionSnapshot snapshot) {
+        publishers.forEach(publisher -> publisher.publishAuctionFinished(snapshot));
+    }
+
+    @Override
+    public void publishAuctionsStarted(List<AuctionSnapshot> snapshots) {
+        publishers.forEach(publisher -> publisher.publishAuctionsStarted(snapshots));
+    }
+
+    @Override
+    public void publishAuctionsFinished(List<AuctionSnapshot> snapshots) {
+        publishers.forEach(publisher -> publisher.publishAuctionsFinished(snapshots));
+    }
+
+    @Override
+    public void publishBetOperationPerformed(AuctionSnapshot snapshot, PlaceBetResult placeBetResult) {
+        publishers.forEach(publisher -> publisher.publishBetOperationPerformed(snapshot, placeBetResult));
+    }
+
+    @Override
+    public void publishBetOperationsPerformed(List<BetOperation> operations) {
+        publishers.forEach(publisher -> publisher.publishBetOperationsPerformed(operations));
+    }
+
+}
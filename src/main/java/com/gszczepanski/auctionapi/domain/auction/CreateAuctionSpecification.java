@@ -9,7 +9,6 @@ import java.time.OffsetDateTime;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Strings.isNullOrEmpty;
-import static java.math.BigDecimal.ZERO;
 import static java.util.Objects.nonNull;
 import static lombok.AccessLevel.PRIVATE;
 
@@ -69,7 +68,7 @@ public class CreateAuctionSpecification {
 
         private void validatePrices() {
             checkArgument(nonNull(minimalPrice), "minimalPrice is null");
-            checkArgument(minimalPrice.getAmount().compareTo(ZERO) != -1, "minimalPrice can not be negative");
+            checkArgument(!minimalPrice.isNegative(), "minimalPrice can not be negative");
         }
 
         private void validateDates() {
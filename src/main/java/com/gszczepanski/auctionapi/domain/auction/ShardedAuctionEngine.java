@@ -0,0 +1,193 @@
+package com.gszczepanski.auctionapi.domain.auction;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.gszczepanski.auctionapi.domain.Time;
+import com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResult;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.gszczepanski.auctionapi.domain.auction.Auction.AuctionStatus.STARTED;
+import static com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResultStatus.SUCCESS;
+import static com.gszczepanski.auctionapi.domain.auction.AuctionRepository.AuctionQuery.queryForCode;
+import static java.lang.String.format;
+import static java.util.Objects.nonNull;
+import static java.util.function.Function.identity;
+
+/**
+ * Places bets on in-memory copies of started auctions. Auctions are partitioned by code across single-threaded
+ * shards, so all bets for one auction are applied sequentially without locking. Accepted bets are handed over to
+ * {@link AcceptedBetWriter} and persisted asynchronously, their results complete once the writer considers them
+ * durable. The shard does not wait for that and moves on to the next bet. The writer publishes bet operation events
+ * once their bets are persisted.
+ * <p>
+ * When the writer fails to take or journal a bet, the in-memory auction holds a bet that may never be persisted. It
+ * is evicted, and bets on it are rejected until the writer has written everything queued so far and it can be
+ * reloaded from the database.
+ */
+@Service
+@ConditionalOnProperty(name = "auction.engine.mode", havingValue = "sharded")
+public class ShardedAuctionEngine {
+
+    private final AuctionRepository auctionRepository;
+
+    private final AcceptedBetWriter acceptedBetWriter;
+
+    private final Time time;
+
+    private final AuctionMetrics auctionMetrics;
+
+    private final Shard[] shards;
+
+    public ShardedAuctionEngine(AuctionRepository auctionRepository,
+                                AcceptedBetWriter acceptedBetWriter,
+                                Time time,
+                                AuctionMetrics auctionMetrics,
+                                @Value("${auction.engine.shards:8}") int shardsCount) {
+        checkArgument(shardsCount > 0, "shardsCount must be positive");
+
+        this.auctionRepository = auctionRepository;
+        this.acceptedBetWriter = acceptedBetWriter;
+        this.time = time;
+        this.auctionMetrics = auctionMetrics;
+        this.shards = new Shard[shardsCount];
+        for (int index = 0; index < shardsCount; index++) {
+            shards[index] = new Shard(index);
+        }
+    }
+
+    public CompletableFuture<PlaceBetResult> placeBet(PlaceBetSpecification specification) {
+        checkArgument(nonNull(specification), "specification is null");
+
+        long start = System.nanoTime();
+        return shardFor(specification.getAuctionCode()).submit(specification)
+                .whenComplete((result, failure) -> {
+                    long duration = System.nanoTime() - start;
+                    if (nonNull(result)) {
+                        auctionMetrics.recordBetPlaced(result.getStatus(), duration);
+                    } else {
+                        auctionMetrics.recordBetFailed(duration);
+                    }
+                });
+    }
+
+    /**
+     * Waits until bets submitted so far are applied on their shards and persisted or dropped by the writer, so
+     * auctions can be finished in the database without missing bets still in flight.
+     */
+    public void awaitPlacedBetsWritten() {
+        CompletableFuture<?>[] applied = Arrays.stream(shards)
+                .map(shard -> CompletableFuture.runAsync(() -> { }, shard.executor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(applied).join();
+        acceptedBetWriter.flush().join();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        for (Shard shard : shards) {
+            shard.executor.shutdown();
+        }
+        for (Shard shard : shards) {
+            shard.executor.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private Shard shardFor(String auctionCode) {
+        return shards[Math.floorMod(auctionCode.hashCode(), shards.length)];
+    }
+
+    private final class Shard {
+
+        private final ExecutorService executor;
+
+        private final Map<String, Auction> activeAuctions = new HashMap<>();
+
+        private final Map<String, CompletableFuture<Void>> staleAuctions = new HashMap<>();
+
+        private Shard(int index) {
+            this.executor = Executors.newSingleThreadExecutor(
+                    new ThreadFactoryBuilder()
+                            .setNameFormat("auction-engine-shard-" + index)
+                            .setDaemon(true)
+                            .build()
+            );
+        }
+
+        private CompletableFuture<PlaceBetResult> submit(PlaceBetSpecification specification) {
+            return CompletableFuture.supplyAsync(() -> placeBet(specification), executor)
+                    .thenCompose(identity());
+        }
+
+        private CompletableFuture<PlaceBetResult> placeBet(PlaceBetSpecification specification) {
+            Auction auction = findActiveAuction(specification.getAuctionCode());
+
+            PlaceBetResult result = auction.placeBet(specification, time);
+            if (result.getStatus() == SUCCESS) {
+                auction.advanceVersion();
+            }
+            CompletableFuture<Void> durable;
+            try {
+                durable = acceptedBetWriter.write(auction.asSnapshot(), result);
+            } catch (RuntimeException exception) {
+                evict(specification.getAuctionCode());
+                throw exception;
+            }
+            return durable
+                    .whenComplete((ignored, failure) -> {
+                        if (nonNull(failure)) {
+                            executor.execute(() -> evict(specification.getAuctionCode()));
+                        }
+                    })
+                    .thenApply(ignored -> result);
+        }
+
+        private void evict(String auctionCode) {
+            activeAuctions.remove(auctionCode);
+            CompletableFuture<Void> written;
+            try {
+                written = acceptedBetWriter.flush();
+            } catch (RuntimeException exception) {
+                written = CompletableFuture.failedFuture(exception);
+            }
+            staleAuctions.put(auctionCode, written);
+        }
+
+        private Auction findActiveAuction(String auctionCode) {
+            CompletableFuture<Void> written = staleAuctions.get(auctionCode);
+            if (nonNull(written)) {
+                checkState(written.isDone() && !written.isCompletedExceptionally(),
+                        "Auction %s is unavailable until its accepted bets are written", auctionCode);
+                staleAuctions.remove(auctionCode);
+            }
+
+            Auction cachedAuction = activeAuctions.get(auctionCode);
+            if (nonNull(cachedAuction) && !cachedAuction.isEligibleForFinishing(time)) {
+                return cachedAuction;
+            }
+
+            activeAuctions.remove(auctionCode);
+            Auction auction = auctionRepository.findOne(queryForCode(auctionCode))
+                    .map(Auction::restoreFrom)
+                    .orElseThrow(() -> new IllegalArgumentException(format("Auction not found for code %s", auctionCode)));
+            if (auction.getStatus() == STARTED && !auction.isEligibleForFinishing(time)) {
+                activeAuctions.put(auctionCode, auction);
+            }
+            return auction;
+        }
+
+    }
+
+}
@@ -0,0 +1,242 @@
+package com.gszczepanski.auctionapi.infrastructure.cache;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.gszczepanski.auctionapi.domain.auction.Auction.AuctionStatus;
+import com.gszczepanski.auctionapi.domain.auction.AuctionRepository;
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot;
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot.BetSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.gszczepanski.auctionapi.domain.auction.AuctionRepository.AuctionQuery.queryForCode;
+import static java.util.Objects.nonNull;
+
+/**
+ * Read-through cache of {@link #findOne(AuctionQuery)} by auction code in front of the database repository. Writes
+ * made through this repository update cached snapshots in place once their transaction commits, or evict them when
+ * the cached version is not the one the write was based on. Writes themselves start from cached snapshots, which is
+ * safe as they check the version: a conflicting write evicts its code, so the retry reads it fresh. A load racing
+ * with a write is not cached: every write bumps a generation counter of the code's stripe and a load is only put when
+ * the generation did not change.
+ * <p>
+ * Active auctions live for {@code active-ttl}, which bounds staleness against writes of other nodes, finished ones
+ * for {@code finished-ttl}. Bets of the sharded engine are written behind past this repository, so the cache is only
+ * used in database engine mode.
+ */
+@Primary
+@Component
+@ConditionalOnProperty(name = "auction.engine.mode", havingValue = "database", matchIfMissing = true)
+class CachingAuctionRepository implements AuctionRepository {
+
+    static final String CACHE_NAME = "auctionSnapshots";
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final AuctionRepository delegate;
+
+    private final Cache<String, AuctionSnapshot> snapshots;
+
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    CachingAuctionRepository(@Qualifier("auctionJpaRepository") AuctionRepository delegate,
+                             MeterRegistry meterRegistry,
+                             @Value("${auction.cache.maximum-size:10000}") long maximumSize,
+                             @Value("${auction.cache.active-ttl:1m}") Duration activeTtl,
+                             @Value("${auction.cache.finished-ttl:10m}") Duration finishedTtl) {
+        checkArgument(maximumSize > 0, "maximumSize must be positive");
+        checkArgument(nonNull(activeTtl) && !activeTtl.isNegative(), "activeTtl must not be negative");
+        checkArgument(nonNull(finishedTtl) && !finishedTtl.isNegative(), "finishedTtl must not be negative");
+
+        this.delegate = delegate;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new StatusBasedExpiry(activeTtl.toNanos(), finishedTtl.toNanos()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, CACHE_NAME);
+    }
+
+    @Override
+    public AuctionSnapshot save(AuctionSnapshot auction) {
+        AuctionSnapshot saved = delegate.save(auction);
+        afterCommit(auction.getCode(), cached -> null);
+        return saved;
+    }
+
+    @Override
+    public void saveHeader(AuctionSnapshot auction) {
+        evictOnConflict(auction.getCode(), () -> delegate.saveHeader(auction));
+        afterCommit(auction.getCode(), cached -> isVersion(cached, auction.getVersion())
+                ? cached.toBuilder()
+                .status(auction.getStatus())
+                .version(auction.getVersion() + 1)
+                .build()
+                : null
+        );
+    }
+
+    @Override
+    public void appendBet(AuctionSnapshot auction, BetSnapshot bet) {
+        evictOnConflict(auction.getCode(), () -> delegate.appendBet(auction, bet));
+        afterCommit(auction.getCode(), cached -> isVersion(cached, auction.getVersion())
+                ? withAppendedBet(cached, bet)
+                : null
+        );
+    }
+
+    @Override
+    public List<AuctionSnapshot> startEligible(OffsetDateTime startDateTo, int limit) {
+        List<AuctionSnapshot> started = delegate.startEligible(startDateTo, limit);
+        started.forEach(auction -> afterCommit(auction.getCode(), cached -> null));
+        return started;
+    }
+
+    @Override
+    public List<AuctionSnapshot> finishEligible(OffsetDateTime endDateBefore, int limit) {
+        List<AuctionSnapshot> finished = delegate.finishEligible(endDateBefore, limit);
+        finished.forEach(auction -> afterCommit(auction.getCode(), cached -> null));
+        return finished;
+    }
+
+    @Override
+    public Optional<AuctionSnapshot> findOne(AuctionQuery query) {
+        Optional<String> cacheableCode = query.getCode().filter(code -> query.equals(queryForCode(code)));
+        if (cacheableCode.isEmpty()) {
+            return delegate.findOne(query);
+        }
+
+        String code = cacheableCode.get();
+        AuctionSnapshot cached = snapshots.getIfPresent(code);
+        if (nonNull(cached)) {
+            return Optional.of(cached);
+        }
+
+        int stripe = stripeOf(code);
+        long generation = generations.get(stripe);
+        Optional<AuctionSnapshot> loaded = delegate.findOne(query);
+        loaded.ifPresent(snapshot -> snapshots.asMap().compute(code, (key, current) ->
+                nonNull(current) || generations.get(stripe) != generation ? current : snapshot
+        ));
+        return loaded;
+    }
+
+    @Override
+    public List<AuctionSnapshot> findAll(AuctionQuery query) {
+        return delegate.findAll(query);
+    }
+
+    @Override
+    public List<BetSnapshot> findBets(BetHistoryQuery query) {
+        return delegate.findBets(query);
+    }
+
+    @Override
+    public Stream<AuctionSnapshot> streamAll(AuctionQuery query) {
+        return delegate.streamAll(query);
+    }
+
+    void invalidateAll() {
+        snapshots.invalidateAll();
+    }
+
+    private void evictOnConflict(String code, Runnable write) {
+        try {
+            write.run();
+        } catch (OptimisticLockingFailureException exception) {
+            apply(code, cached -> null);
+            throw exception;
+        }
+    }
+
+    private void afterCommit(String code, UnaryOperator<AuctionSnapshot> update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(code, update);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(code, update);
+            }
+        });
+    }
+
+    private void apply(String code, UnaryOperator<AuctionSnapshot> update) {
+        snapshots.asMap().compute(code, (key, cached) -> {
+            generations.incrementAndGet(stripeOf(code));
+            return nonNull(cached) ? update.apply(cached) : null;
+        });
+    }
+
+    private static boolean isVersion(AuctionSnapshot snapshot, int version) {
+        return snapshot.getVersion() == version;
+    }
+
+    private static AuctionSnapshot withAppendedBet(AuctionSnapshot snapshot, BetSnapshot bet) {
+        return snapshot.toBuilder()
+                .topBet(bet)
+                .betsCount(snapshot.getBetsCount() + 1)
+                .version(snapshot.getVersion() + 1)
+                .build();
+    }
+
+    private static int stripeOf(String code) {
+        return Math.floorMod(code.hashCode(), GENERATION_STRIPES);
+    }
+
+    private static final class StatusBasedExpiry implements Expiry<String, AuctionSnapshot> {
+
+        private final long activeTtlNanos;
+
+        private final long finishedTtlNanos;
+
+        private StatusBasedExpiry(long activeTtlNanos, long finishedTtlNanos) {
+            this.activeTtlNanos = activeTtlNanos;
+            this.finishedTtlNanos = finishedTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String code, AuctionSnapshot snapshot, long currentTime) {
+            return ttlOf(snapshot);
+        }
+
+        @Override
+        public long expireAfterUpdate(String code, AuctionSnapshot snapshot, long currentTime, long currentDuration) {
+            return ttlOf(snapshot);
+        }
+
+        @Override
+        public long expireAfterRead(String code, AuctionSnapshot snapshot, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private long ttlOf(AuctionSnapshot snapshot) {
+            AuctionStatus status = snapshot.getStatus();
+            return status == AuctionStatus.FINISHED_SOLD || status == AuctionStatus.FINISHED_NOT_SOLD
+                    ? finishedTtlNanos
+                    : activeTtlNanos;
+        }
+
+    }
+
+}
@@ -0,0 +1,204 @@
+package com.gszczepanski.auctionapi.infrastructure.codec;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+
+import com.gszczepanski.auctionapi.domain.Id;
+import com.gszczepanski.auctionapi.domain.Money;
+import com.gszczepanski.auctionapi.domain.Money.Currency;
+import com.gszczepanski.auctionapi.domain.auction.Auction.AuctionStatus;
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot;
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot.BetSnapshot;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.nonNull;
+
+/**
+ * Versioned binary format of {@link AuctionSnapshot} and {@link BetSnapshot}. Encoding writes into a buffer supplied,
+ * and usually reused, by the caller, decoding reads from its position on.
+ * <p>
+ * Version 1 layout, every encoded snapshot starts with the version byte:
+ * <ul>
+ * <li>ids as 16 bytes</li>
+ * <li>times as varint epoch millis, decoded in UTC, so sub-millisecond precision and the offset are not kept</li>
+ * <li>money as zigzag varint minor units followed by varint currency ordinal, so currencies may only be appended</li>
+ * <li>status, version and bets count as varints, code as varint length and UTF-8 bytes</li>
+ * <li>a flags byte marks whether the optional current price and top bet follow</li>
+ * </ul>
+ */
+@Component
+public class SnapshotCodec {
+
+    public static final byte VERSION = 1;
+
+    /**
+     * Upper bound of an encoded bet, to size buffers.
+     */
+    public static final int MAX_BET_BYTES = 1 + 2 * 16 + 10 + 10 + 5;
+
+    private static final int CURRENT_PRICE_PRESENT = 1;
+
+    private static final int TOP_BET_PRESENT = 1 << 1;
+
+    private static final AuctionStatus[] STATUSES = AuctionStatus.values();
+
+    private static final Currency[] CURRENCIES = Currency.values();
+
+    /**
+     * @throws java.nio.BufferOverflowException when the snapshot does not fit the remaining buffer
+     */
+    public void encode(AuctionSnapshot auction, ByteBuffer target) {
+        checkArgument(nonNull(auction), "auction is null");
+        checkArgument(nonNull(target), "target is null");
+
+        byte[] code = auction.getCode().getBytes(UTF_8);
+        int flags = (nonNull(auction.getCurrentAuctionedPrice()) ? CURRENT_PRICE_PRESENT : 0)
+                | (auction.getTopBet().isPresent() ? TOP_BET_PRESENT : 0);
+
+        target.put(VERSION);
+        putId(auction.getId(), target);
+        putVarLong(code.length, target);
+        target.put(code);
+        putVarLong(auction.getStatus().ordinal(), target);
+        putVarLong(auction.getVersion(), target);
+        putMoney(auction.getMinimalPrice(), target);
+        putTime(auction.getStartDate(), target);
+        putTime(auction.getEndDate(), target);
+        putTime(auction.getCreationTime(), target);
+        putVarLong(auction.getBetsCount(), target);
+        target.put((byte) flags);
+        if (nonNull(auction.getCurrentAuctionedPrice())) {
+            putMoney(auction.getCurrentAuctionedPrice(), target);
+        }
+        auction.getTopBet().ifPresent(bet -> putBet(bet, target));
+    }
+
+    /**
+     * @throws java.nio.BufferOverflowException when the bet does not fit the remaining buffer
+     */
+    public void encode(BetSnapshot bet, ByteBuffer target) {
+        checkArgument(nonNull(bet), "bet is null");
+        checkArgument(nonNull(target), "target is null");
+
+        target.put(VERSION);
+        putBet(bet, target);
+    }
+
+    public AuctionSnapshot decodeAuction(ByteBuffer source) {
+        checkArgument(nonNull(source), "source is null");
+        checkVersion(source.get());
+
+        AuctionSnapshot.AuctionSnapshotBuilder auction = AuctionSnapshot.builder()
+                .id(getId(source));
+        byte[] code = new byte[Math.toIntExact(getVarLong(source))];
+        source.get(code);
+        auction.code(new String(code, UTF_8))
+                .status(STATUSES[Math.toIntExact(getVarLong(source))])
+                .version(Math.toIntExact(getVarLong(source)))
+                .minimalPrice(getMoney(source))
+                .startDate(getTime(source))
+                .endDate(getTime(source))
+                .creationTime(getTime(source))
+                .betsCount(Math.toIntExact(getVarLong(source)));
+        int flags = source.get();
+        if ((flags & CURRENT_PRICE_PRESENT) != 0) {
+            auction.currentAuctionedPrice(getMoney(source));
+        }
+        if ((flags & TOP_BET_PRESENT) != 0) {
+            auction.topBet(getBet(source));
+        }
+        return auction.build();
+    }
+
+    public BetSnapshot decodeBet(ByteBuffer source) {
+        checkArgument(nonNull(source), "source is null");
+        checkVersion(source.get());
+
+        return getBet(source);
+    }
+
+    private static void checkVersion(byte version) {
+        checkArgument(version == VERSION, "Unsupported snapshot codec version %s", version);
+    }
+
+    private static void putBet(BetSnapshot bet, ByteBuffer target) {
+        putId(bet.getId(), target);
+        putId(bet.getUserId(), target);
+        putTime(bet.getCreationTime(), target);
+        putMoney(bet.getPrice(), target);
+    }
+
+    private static BetSnapshot getBet(ByteBuffer source) {
+        return BetSnapshot.builder()
+                .id(getId(source))
+                .userId(getId(source))
+                .creationTime(getTime(source))
+                .price(getMoney(source))
+                .build();
+    }
+
+    private static void putId(Id id, ByteBuffer target) {
+        UUID uuid = id.asUuid();
+        target.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+    }
+
+    private static Id getId(ByteBuffer source) {
+        return Id.from(new UUID(source.getLong(), source.getLong()));
+    }
+
+    private static void putTime(OffsetDateTime time, ByteBuffer target) {
+        putVarLong(zigzag(time.toInstant().toEpochMilli()), target);
+    }
+
+    private static OffsetDateTime getTime(ByteBuffer source) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochMilli(unzigzag(getVarLong(source))), ZoneOffset.UTC);
+    }
+
+    private static void putMoney(Money money, ByteBuffer target) {
+        putVarLong(zigzag(money.getMinorUnits()), target);
+        putVarLong(money.getCurrency().ordinal(), target);
+    }
+
+    private static Money getMoney(ByteBuffer source) {
+        long minorUnits = unzigzag(getVarLong(source));
+        return Money.ofMinorUnits(minorUnits, CURRENCIES[Math.toIntExact(getVarLong(source))]);
+    }
+
+    /**
+     * Unsigned LEB128, 7 bits per byte with the high bit set on all but the last one.
+     */
+    private static void putVarLong(long value, ByteBuffer target) {
+        while ((value & ~0x7FL) != 0) {
+            target.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        target.put((byte) value);
+    }
+
+    private static long getVarLong(ByteBuffer source) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte next = source.get();
+            value |= (long) (next & 0x7F) << shift;
+            if (next >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+}
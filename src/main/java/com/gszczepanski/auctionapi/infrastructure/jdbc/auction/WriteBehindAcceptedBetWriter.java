@@ -0,0 +1,419 @@
+package com.gszczepanski.auctionapi.infrastructure.jdbc.auction;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.gszczepanski.auctionapi.domain.Id;
+import com.gszczepanski.auctionapi.domain.auction.AcceptedBetWriter;
+import com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResult;
+import com.gszczepanski.auctionapi.domain.auction.AuctionEventPublisher;
+import com.gszczepanski.auctionapi.domain.auction.AuctionEventPublisher.BetOperation;
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot;
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot.BetSnapshot;
+import com.gszczepanski.auctionapi.infrastructure.journal.BetJournal;
+import com.gszczepanski.auctionapi.infrastructure.journal.BetJournal.Appended;
+import lombok.extern.slf4j.Slf4j;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResultStatus.SUCCESS;
+import static java.util.Collections.nCopies;
+import static java.util.Objects.nonNull;
+import static java.util.stream.Collectors.counting;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Writes accepted bets to the {@code bets} table in batches of up to {@code max-batch-size}, waiting at most
+ * {@code max-linger} for a batch to fill up. Without a journal a bet is acknowledged as soon as it is queued and lost
+ * if the process dies before its batch commits. With {@link BetJournal} enabled it is acknowledged once journaled, its
+ * journal segment is compacted after the batch commits, and bets journaled by a previous run are written on start.
+ * <p>
+ * Bet operation events, rejected bids included, are published in the transaction of the batch that writes their bets,
+ * so no event is published for a bet that is not persisted. A bet whose journal write fails is dropped together with
+ * its event. Events of bets recovered from the journal are not journaled and so not published.
+ * <p>
+ * A batch that fails is kept and retried with exponential backoff from {@code retry-delay} up to
+ * {@code max-retry-delay}. New bets are rejected until it is written, so acknowledged bets are never dropped.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "auction.engine.mode", havingValue = "sharded")
+class WriteBehindAcceptedBetWriter implements AcceptedBetWriter {
+
+    private static final String INSERT_BET = "INSERT INTO bets (id, user_id, auction_id, price_amount, price_currency, creation_time) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String BUMP_AUCTION_VERSION = "UPDATE auctions SET version = version + ?, bets_count = bets_count + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final AuctionEventPublisher auctionEventPublisher;
+
+    private final Optional<BetJournal> betJournal;
+
+    private final int maxBatchSize;
+
+    private final long maxLingerNanos;
+
+    private final Duration retryDelay;
+
+    private final Duration maxRetryDelay;
+
+    private final BlockingQueue<QueuedOperation> queuedOperations;
+
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setNameFormat("accepted-bet-writer").setDaemon(true).build()
+    );
+
+    private final AtomicInteger writesInProgress = new AtomicInteger();
+
+    private volatile boolean running = true;
+
+    private volatile boolean failing;
+
+    WriteBehindAcceptedBetWriter(JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 AuctionEventPublisher auctionEventPublisher,
+                                 @Value("${auction.engine.writer.queue-capacity:10000}") int queueCapacity,
+                                 @Value("${auction.engine.writer.max-batch-size:500}") int maxBatchSize,
+                                 @Value("${auction.engine.writer.max-linger:5ms}") Duration maxLinger,
+                                 @Value("${auction.engine.writer.retry-delay:100ms}") Duration retryDelay,
+                                 @Value("${auction.engine.writer.max-retry-delay:5s}") Duration maxRetryDelay,
+                                 Optional<BetJournal> betJournal) {
+        checkArgument(queueCapacity > 0, "queueCapacity must be positive");
+        checkArgument(maxBatchSize > 0, "maxBatchSize must be positive");
+        checkArgument(nonNull(maxLinger) && !maxLinger.isNegative(), "maxLinger must not be negative");
+        checkArgument(nonNull(retryDelay) && !retryDelay.isNegative() && !retryDelay.isZero(), "retryDelay must be positive");
+        checkArgument(nonNull(maxRetryDelay) && maxRetryDelay.compareTo(retryDelay) >= 0, "maxRetryDelay must not be shorter than retryDelay");
+        checkArgument(nonNull(betJournal), "betJournal is null");
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.auctionEventPublisher = auctionEventPublisher;
+        this.betJournal = betJournal;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLingerNanos = maxLinger.toNanos();
+        this.retryDelay = retryDelay;
+        this.maxRetryDelay = maxRetryDelay;
+        this.queuedOperations = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    void start() {
+        betJournal.ifPresent(this::writeRecovered);
+        flusher.execute(this::flushContinuously);
+    }
+
+    /**
+     * Waits for queued bets to be written, the flusher is interrupted if they are not written in time.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        flusher.shutdown();
+        if (!flusher.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.error("Accepted bets were not written within 30s of stopping, interrupting the writer");
+            flusher.shutdownNow();
+        }
+    }
+
+    /**
+     * A write is counted as in progress before the running flag is checked, so the flusher does not exit until a
+     * write that saw the writer running has enqueued its bet.
+     */
+    @Override
+    public CompletableFuture<Void> write(AuctionSnapshot auction, PlaceBetResult result) {
+        checkArgument(nonNull(auction), "auction is null");
+        checkArgument(nonNull(result), "result is null");
+
+        writesInProgress.incrementAndGet();
+        try {
+            checkState(running, "writer is stopped");
+            checkState(!failing, "writer is failing to persist accepted bets");
+
+            BetOperation operation = new BetOperation(auction, result);
+            if (result.getStatus() != SUCCESS || betJournal.isEmpty()) {
+                enqueue(QueuedOperation.notJournaled(operation));
+                return CompletableFuture.completedFuture(null);
+            }
+            Appended appended = betJournal.get().append(auction.getId(), result.getBetSnapshot().get());
+            enqueue(new QueuedOperation(operation, appended.getSegment(), appended.getForced(), null));
+            return appended.getForced();
+        } finally {
+            writesInProgress.decrementAndGet();
+        }
+    }
+
+    /**
+     * Queues a barrier behind the operations written so far, it completes once the batch it lands in is written.
+     */
+    @Override
+    public CompletableFuture<Void> flush() {
+        writesInProgress.incrementAndGet();
+        try {
+            checkState(running, "writer is stopped");
+
+            QueuedOperation barrier = QueuedOperation.barrier();
+            enqueue(barrier);
+            return barrier.written;
+        } finally {
+            writesInProgress.decrementAndGet();
+        }
+    }
+
+    private void enqueue(QueuedOperation queuedOperation) {
+        try {
+            queuedOperations.put(queuedOperation);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for space in accepted bets queue", exception);
+        }
+    }
+
+    private void flushContinuously() {
+        List<QueuedOperation> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (running || writesInProgress.get() > 0 || !queuedOperations.isEmpty()) {
+                collectBatch(batch);
+                if (!batch.isEmpty()) {
+                    writeBatch(batch);
+                    batch.clear();
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            queuedOperations.drainTo(batch);
+            log.error("Stopped with {} bet operations not written, {}", batch.size(),
+                    betJournal.isPresent() ? "accepted bets are written from the journal on the next start" : "they are lost");
+            batch.stream()
+                    .filter(QueuedOperation::isBarrier)
+                    .forEach(barrier -> barrier.written.completeExceptionally(exception));
+        }
+    }
+
+    private void writeBatch(List<QueuedOperation> batch) throws InterruptedException {
+        List<BetOperation> operations = new ArrayList<>(batch.size());
+        List<AcceptedBet> acceptedBets = new ArrayList<>(batch.size());
+        for (QueuedOperation queuedOperation : batch) {
+            if (!queuedOperation.isBarrier() && isJournaled(queuedOperation)) {
+                operations.add(queuedOperation.operation);
+                queuedOperation.toAcceptedBet().ifPresent(acceptedBets::add);
+            }
+        }
+        if (!operations.isEmpty()) {
+            flushRetrying(acceptedBets, operations);
+        }
+        betJournal.ifPresent(journal -> batch.stream()
+                .filter(queuedOperation -> queuedOperation.segment != AcceptedBet.NOT_JOURNALED)
+                .forEach(queuedOperation -> journal.flushed(queuedOperation.segment)));
+        batch.stream()
+                .filter(QueuedOperation::isBarrier)
+                .forEach(barrier -> barrier.written.complete(null));
+    }
+
+    /**
+     * The bidder of a bet whose journal write failed was told it failed, so the bet is dropped.
+     */
+    private boolean isJournaled(QueuedOperation queuedOperation) throws InterruptedException {
+        try {
+            queuedOperation.forced.get();
+            return true;
+        } catch (ExecutionException exception) {
+            log.warn("Dropping bet of auction {} which could not be journaled: {}",
+                    queuedOperation.operation.getSnapshot().getCode(), exception.getCause().toString());
+            return false;
+        }
+    }
+
+    private void flushRetrying(List<AcceptedBet> batch, List<BetOperation> operations) throws InterruptedException {
+        Duration delay = retryDelay;
+        while (true) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    insert(batch);
+                    auctionEventPublisher.publishBetOperationsPerformed(operations);
+                });
+                if (failing) {
+                    failing = false;
+                    log.info("Persisted {} accepted bets after retrying, accepting bets again", batch.size());
+                }
+                return;
+            } catch (RuntimeException exception) {
+                if (!failing) {
+                    failing = true;
+                    log.error("Could not persist {} accepted bets, rejecting new bets until they are written", batch.size(), exception);
+                } else {
+                    log.warn("Could not persist {} accepted bets, retrying in {}: {}", batch.size(), delay, exception.toString());
+                }
+                TimeUnit.NANOSECONDS.sleep(delay.toNanos());
+                delay = delay.multipliedBy(2).compareTo(maxRetryDelay) < 0 ? delay.multipliedBy(2) : maxRetryDelay;
+            }
+        }
+    }
+
+    private void collectBatch(List<QueuedOperation> batch) throws InterruptedException {
+        QueuedOperation first = queuedOperations.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + maxLingerNanos;
+        while (batch.size() < maxBatchSize) {
+            queuedOperations.drainTo(batch, maxBatchSize - batch.size());
+            long remainingNanos = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remainingNanos <= 0 || !running) {
+                return;
+            }
+            QueuedOperation next = queuedOperations.poll(remainingNanos, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * Bets journaled by a previous run may have been written before it stopped, those are skipped.
+     */
+    private void writeRecovered(BetJournal journal) {
+        List<AcceptedBet> recovered = journal.recoveredRecords().stream()
+                .map(record -> new AcceptedBet(record.getAuctionId(), record.getBet(), record.getSegment()))
+                .collect(toList());
+        for (List<AcceptedBet> batch : Lists.partition(recovered, maxBatchSize)) {
+            Set<Id> writtenIds = findWrittenIds(batch);
+            List<AcceptedBet> unwritten = batch.stream()
+                    .filter(acceptedBet -> !writtenIds.contains(acceptedBet.bet.getId()))
+                    .collect(toList());
+            if (!unwritten.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> insert(unwritten));
+            }
+            batch.forEach(acceptedBet -> journal.flushed(acceptedBet.segment));
+        }
+        if (!recovered.isEmpty()) {
+            log.info("Wrote {} bets recovered from journal", recovered.size());
+        }
+    }
+
+    private Set<Id> findWrittenIds(List<AcceptedBet> batch) {
+        String placeholders = String.join(", ", nCopies(batch.size(), "?"));
+        Object[] ids = batch.stream().map(acceptedBet -> acceptedBet.bet.getId().asBytes()).toArray();
+        return jdbcTemplate.queryForList("SELECT id FROM bets WHERE id IN (" + placeholders + ")", byte[].class, ids).stream()
+                .map(Id::fromBytes)
+                .collect(toSet());
+    }
+
+    /**
+     * Bumps the version of every auction in the batch once per bet, like appending a bet does and like the engine
+     * advanced its copy, so writers holding an older copy of the auction, e.g. lifecycle transitions, fail their version
+     * check instead of overwriting its state. The same update adds the batch's bets to the auction's bets count.
+     */
+    private void insert(List<AcceptedBet> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Object[]> auctionUpdates = batch.stream()
+                .collect(groupingBy(acceptedBet -> acceptedBet.auctionId, LinkedHashMap::new, counting()))
+                .entrySet().stream()
+                .map(betsCount -> new Object[]{betsCount.getValue(), betsCount.getValue(), betsCount.getKey().asBytes()})
+                .collect(toList());
+        jdbcTemplate.batchUpdate(BUMP_AUCTION_VERSION, auctionUpdates);
+        jdbcTemplate.batchUpdate(INSERT_BET, new BatchPreparedStatementSetter() {
+
+            @Override
+            public void setValues(PreparedStatement statement, int index) throws SQLException {
+                AcceptedBet acceptedBet = batch.get(index);
+                BetSnapshot bet = acceptedBet.bet;
+                statement.setBytes(1, bet.getId().asBytes());
+                statement.setBytes(2, bet.getUserId().asBytes());
+                statement.setBytes(3, acceptedBet.auctionId.asBytes());
+                statement.setBigDecimal(4, bet.getPrice().getAmount());
+                statement.setString(5, bet.getPrice().getCurrency().name());
+                statement.setTimestamp(6, Timestamp.from(bet.getCreationTime().toInstant()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return batch.size();
+            }
+
+        });
+    }
+
+    @lombok.Value
+    private static class AcceptedBet {
+
+        private static final long NOT_JOURNALED = -1;
+
+        private final Id auctionId;
+
+        private final BetSnapshot bet;
+
+        private final long segment;
+
+    }
+
+    /**
+     * A bet operation waiting to be written, or a barrier without one completed once its batch is written.
+     */
+    @lombok.Value
+    private static class QueuedOperation {
+
+        private final BetOperation operation;
+
+        private final long segment;
+
+        private final CompletableFuture<Void> forced;
+
+        private final CompletableFuture<Void> written;
+
+        private static QueuedOperation notJournaled(BetOperation operation) {
+            return new QueuedOperation(operation, AcceptedBet.NOT_JOURNALED, CompletableFuture.completedFuture(null), null);
+        }
+
+        private static QueuedOperation barrier() {
+            return new QueuedOperation(null, AcceptedBet.NOT_JOURNALED, CompletableFuture.completedFuture(null), new CompletableFuture<>());
+        }
+
+        private boolean isBarrier() {
+            return operation == null;
+        }
+
+        private Optional<AcceptedBet> toAcceptedBet() {
+            return operation.getPlaceBetResult().getBetSnapshot()
+                    .map(bet -> new AcceptedBet(operation.getSnapshot().getId(), bet, segment));
+        }
+
+    }
+
+}
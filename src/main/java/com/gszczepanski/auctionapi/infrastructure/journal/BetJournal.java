@@ -0,0 +1,367 @@
+package com.gszczepanski.auctionapi.infrastructure.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.gszczepanski.auctionapi.domain.Id;
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot.BetSnapshot;
+import com.gszczepanski.auctionapi.infrastructure.codec.SnapshotCodec;
+import lombok.extern.slf4j.Slf4j;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.nonNull;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Local append-only journal of bets accepted by the sharded engine, so they can be acknowledged before they reach the
+ * {@code bets} table. Records are appended to memory-mapped segment files of {@code segment-size}, a full segment is
+ * forced and a new one is started.
+ * <p>
+ * Appends are group committed: a background thread forces the active segment every {@code force-interval}, or as
+ * soon as {@code force-bytes} were appended since the last force, and completes the futures of all records appended
+ * before it. A segment is deleted once it is full and all of its records were {@link #flushed(long) flushed} to the
+ * database. Records of segments left over by a previous run are read on startup, see {@link #recoveredRecords()}.
+ * <p>
+ * Record layout: payload length, CRC32 of the payload, then the auction id as 16 bytes and the bet in
+ * {@link SnapshotCodec} format. A zero length ends a segment, a checksum mismatch marks a torn write of a crash.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "auction.engine.journal.enabled", havingValue = "true")
+public class BetJournal {
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    private static final int MAX_PAYLOAD_BYTES = 16 + SnapshotCodec.MAX_BET_BYTES;
+
+    private final SnapshotCodec snapshotCodec;
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    private final int forceBytes;
+
+    private final ConcurrentNavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    private final List<JournalRecord> recoveredRecords;
+
+    private final ByteBuffer payload = ByteBuffer.allocate(MAX_PAYLOAD_BYTES);
+
+    private final CRC32 checksum = new CRC32();
+
+    private final Object forceLock = new Object();
+
+    private final ScheduledExecutorService forcer = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("bet-journal-forcer").setDaemon(true).build()
+    );
+
+    private Segment active;
+
+    private int unforcedBytes;
+
+    private boolean forceRequested;
+
+    private List<CompletableFuture<Void>> awaitingForce = new ArrayList<>();
+
+    private boolean closed;
+
+    public BetJournal(SnapshotCodec snapshotCodec,
+                      @Value("${auction.engine.journal.directory:journal}") Path directory,
+                      @Value("${auction.engine.journal.segment-size:64MB}") DataSize segmentSize,
+                      @Value("${auction.engine.journal.force-interval:1ms}") Duration forceInterval,
+                      @Value("${auction.engine.journal.force-bytes:64KB}") DataSize forceBytes) {
+        checkArgument(nonNull(snapshotCodec), "snapshotCodec is null");
+        checkArgument(nonNull(directory), "directory is null");
+        checkArgument(nonNull(segmentSize) && segmentSize.toBytes() >= HEADER_BYTES + MAX_PAYLOAD_BYTES
+                && segmentSize.toBytes() <= Integer.MAX_VALUE, "segmentSize must fit a record and 2GB");
+        checkArgument(nonNull(forceInterval) && !forceInterval.isNegative() && !forceInterval.isZero(), "forceInterval must be positive");
+        checkArgument(nonNull(forceBytes) && forceBytes.toBytes() > 0, "forceBytes must be positive");
+
+        this.snapshotCodec = snapshotCodec;
+        this.directory = directory;
+        this.segmentSize = (int) segmentSize.toBytes();
+        this.forceBytes = (int) Math.min(forceBytes.toBytes(), Integer.MAX_VALUE);
+        try {
+            Files.createDirectories(directory);
+            this.recoveredRecords = recover();
+            this.active = openSegment(segments.isEmpty() ? 0 : segments.lastKey() + 1);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not open bet journal in " + directory, exception);
+        }
+        forcer.scheduleWithFixedDelay(this::force, forceInterval.toNanos(), forceInterval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the segment of the record, to be reported as {@link #flushed(long)}, and a future completed once the
+     * record is forced to disk
+     */
+    public Appended append(Id auctionId, BetSnapshot bet) {
+        checkArgument(nonNull(auctionId), "auctionId is null");
+        checkArgument(nonNull(bet), "bet is null");
+
+        CompletableFuture<Void> forced = new CompletableFuture<>();
+        synchronized (this) {
+            checkState(!closed, "journal is closed");
+
+            encode(auctionId, bet);
+            int recordBytes = HEADER_BYTES + payload.remaining();
+            if (active.buffer.remaining() < recordBytes) {
+                roll();
+            }
+            active.buffer.putInt(payload.remaining()).putInt((int) checksum.getValue()).put(payload);
+            active.unflushed.incrementAndGet();
+            awaitingForce.add(forced);
+
+            unforcedBytes += recordBytes;
+            if (unforcedBytes >= forceBytes && !forceRequested) {
+                forceRequested = true;
+                forcer.execute(this::force);
+            }
+            return new Appended(active.sequence, forced);
+        }
+    }
+
+    /**
+     * Marks one record of the segment as written to the database, a full segment without unflushed records is deleted.
+     */
+    public void flushed(long segment) {
+        Segment flushedSegment = segments.get(segment);
+        if (nonNull(flushedSegment) && flushedSegment.unflushed.decrementAndGet() == 0 && flushedSegment.sealed) {
+            delete(flushedSegment);
+        }
+    }
+
+    /**
+     * Records of segments left over by a previous run, in append order. Each has to be reported as flushed once it is
+     * in the database, after which the segments are deleted.
+     */
+    public List<JournalRecord> recoveredRecords() {
+        return recoveredRecords;
+    }
+
+    @PreDestroy
+    void close() throws InterruptedException {
+        forcer.shutdown();
+        forcer.awaitTermination(5, TimeUnit.SECONDS);
+        force();
+        synchronized (this) {
+            closed = true;
+            active.sealed = true;
+            if (active.unflushed.get() == 0) {
+                delete(active);
+            }
+        }
+    }
+
+    private void force() {
+        synchronized (forceLock) {
+            List<CompletableFuture<Void>> forced;
+            Segment segment;
+            synchronized (this) {
+                forceRequested = false;
+                if (awaitingForce.isEmpty()) {
+                    return;
+                }
+                forced = awaitingForce;
+                awaitingForce = new ArrayList<>();
+                unforcedBytes = 0;
+                segment = active;
+            }
+            try {
+                segment.buffer.force();
+                forced.forEach(future -> future.complete(null));
+            } catch (RuntimeException exception) {
+                log.error("Could not force bet journal segment {}", segment.path, exception);
+                forced.forEach(future -> future.completeExceptionally(exception));
+            }
+        }
+    }
+
+    /**
+     * Records awaiting force may be in the sealed segment, so it is forced before the next one is used.
+     */
+    private void roll() {
+        Segment sealed = active;
+        sealed.buffer.force();
+        sealed.sealed = true;
+        try {
+            active = openSegment(sealed.sequence + 1);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not roll bet journal over to a new segment", exception);
+        }
+        if (sealed.unflushed.get() == 0) {
+            delete(sealed);
+        }
+    }
+
+    private void delete(Segment segment) {
+        if (!segments.remove(segment.sequence, segment)) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException exception) {
+            log.warn("Could not delete flushed bet journal segment {}", segment.path, exception);
+        }
+    }
+
+    private List<JournalRecord> recover() throws IOException {
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(directory)) {
+            paths = files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(toList());
+        }
+
+        List<JournalRecord> records = new ArrayList<>();
+        for (Path path : paths) {
+            Segment segment = mapSegment(sequenceOf(path), path, false);
+            segment.sealed = true;
+            segments.put(segment.sequence, segment);
+            int recordsBefore = records.size();
+            readRecords(segment, records);
+            segment.unflushed.set(records.size() - recordsBefore);
+            if (segment.unflushed.get() == 0) {
+                delete(segment);
+            }
+        }
+        if (!records.isEmpty()) {
+            log.info("Recovered {} bets from journal in {}", records.size(), directory);
+        }
+        return List.copyOf(records);
+    }
+
+    private void readRecords(Segment segment, List<JournalRecord> records) {
+        ByteBuffer buffer = segment.buffer.duplicate();
+        CRC32 recordChecksum = new CRC32();
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int length = buffer.getInt();
+            int expectedChecksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                return;
+            }
+            ByteBuffer record = buffer.slice();
+            record.limit(length);
+            recordChecksum.reset();
+            recordChecksum.update(record.duplicate());
+            if ((int) recordChecksum.getValue() != expectedChecksum) {
+                log.warn("Skipping torn bet journal record at {} of {}", buffer.position() - HEADER_BYTES, segment.path);
+                return;
+            }
+            records.add(decode(segment.sequence, record));
+            buffer.position(buffer.position() + length);
+        }
+    }
+
+    private Segment openSegment(long sequence) throws IOException {
+        Path path = directory.resolve(String.format("bets-%020d%s", sequence, SEGMENT_SUFFIX));
+        Segment segment = mapSegment(sequence, path, true);
+        segments.put(sequence, segment);
+        return segment;
+    }
+
+    /**
+     * Segments left over by a previous run are mapped at their own size, which may differ from the configured one.
+     */
+    private Segment mapSegment(long sequence, Path path, boolean create) throws IOException {
+        StandardOpenOption[] options = create
+                ? new StandardOpenOption[]{StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE}
+                : new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE};
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            long size = create ? segmentSize : channel.size();
+            return new Segment(sequence, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+    }
+
+    private static long sequenceOf(Path path) {
+        String fileName = path.getFileName().toString();
+        return Long.parseLong(fileName.substring("bets-".length(), fileName.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private void encode(Id auctionId, BetSnapshot bet) {
+        UUID uuid = auctionId.asUuid();
+        payload.clear();
+        payload.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+        snapshotCodec.encode(bet, payload);
+        payload.flip();
+
+        checksum.reset();
+        checksum.update(payload.duplicate());
+    }
+
+    private JournalRecord decode(long segment, ByteBuffer record) {
+        Id auctionId = Id.from(new UUID(record.getLong(), record.getLong()));
+        return new JournalRecord(segment, auctionId, snapshotCodec.decodeBet(record));
+    }
+
+    @lombok.Value
+    public static class Appended {
+
+        private final long segment;
+
+        private final CompletableFuture<Void> forced;
+
+    }
+
+    @lombok.Value
+    public static class JournalRecord {
+
+        private final long segment;
+
+        private final Id auctionId;
+
+        private final BetSnapshot bet;
+
+    }
+
+    private static final class Segment {
+
+        private final long sequence;
+
+        private final Path path;
+
+        private final MappedByteBuffer buffer;
+
+        private final AtomicInteger unflushed = new AtomicInteger();
+
+        private volatile boolean sealed;
+
+        private Segment(long sequence, Path path, MappedByteBuffer buffer) {
+            this.sequence = sequence;
+            this.path = path;
+            this.buffer = buffer;
+        }
+
+    }
+
+}
@@ -1,21 +1,20 @@
 package com.gszczepanski.auctionapi.infrastructure.jpa.auction;
 
 import java.time.OffsetDateTime;
-import java.util.List;
+import java.util.UUID;
 import javax.persistence.AttributeOverride;
 import javax.persistence.AttributeOverrides;
 import javax.persistence.Column;
 import javax.persistence.Embedded;
 import javax.persistence.Entity;
 import javax.persistence.Id;
-import javax.persistence.JoinColumn;
-import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import javax.persistence.Version;
 
 import com.gszczepanski.auctionapi.domain.auction.AuctionRepository;
 import com.gszczepanski.auctionapi.domain.auction.AuctionRepository.AuctionQuery;
-import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -33,7 +32,7 @@ import static java.util.Objects.nonNull;
 public class AuctionEntity {
 
     @Id
-    private String id;
+    private UUID id;
 
     private String code;
 
@@ -50,10 +49,6 @@ public class AuctionEntity {
 
     private OffsetDateTime endDate;
 
-    @OneToMany
-    @JoinColumn(name = "auction_id")
-    private List<BetEntity> bets;
-
     private String status;
 
     @Version
@@ -61,15 +56,20 @@ public class AuctionEntity {
 
     private OffsetDateTime creationTime;
 
-    static BooleanExpression createPredicateFrom(AuctionQuery query) {
+    private int betsCount;
+
+    static Predicate createPredicateFrom(AuctionQuery query) {
         checkArgument(nonNull(query), "query is null");
-        BooleanExpression result = QAuctionEntity.auctionEntity.status.in(
+        QAuctionEntity auction = QAuctionEntity.auctionEntity;
+        BooleanBuilder result = new BooleanBuilder(auction.status.in(
                 query.getStatuses().stream().map(status -> status.name()).toArray(String[]::new)
-        );
+        ));
 
-        return query.getCode()
-                .map(code -> result.and(QAuctionEntity.auctionEntity.code.eq(code)))
-                .orElse(result);
+        query.getCode().ifPresent(code -> result.and(auction.code.eq(code)));
+        query.getStartDateTo().ifPresent(startDateTo -> result.and(auction.startDate.loe(startDateTo)));
+        query.getEndDateBefore().ifPresent(endDateBefore -> result.and(auction.endDate.lt(endDateBefore)));
+        query.getAfterId().ifPresent(afterId -> result.and(auction.id.gt(afterId.asUuid())));
+        return result.getValue();
     }
 
 }
@@ -1,19 +1,47 @@
 package com.gszczepanski.auctionapi.infrastructure.jpa.auction;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 
 import com.querydsl.core.types.Predicate;
 import lombok.Generated;
 
 @Generated
-public interface AuctionEntityJpaRepository extends PagingAndSortingRepository<AuctionEntity, String>, QuerydslPredicateExecutor {
+public interface AuctionEntityJpaRepository extends PagingAndSortingRepository<AuctionEntity, UUID>, QuerydslPredicateExecutor {
 
     List<AuctionEntity> findAll(Predicate predicate);
 
     Optional<AuctionEntity> findOne(Predicate predicate);
 
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE AuctionEntity a SET a.status = :status, a.version = a.version + 1 WHERE a.id = :id AND a.version = :version")
+    int updateStatusAndBumpVersion(@Param("id") UUID id, @Param("status") String status, @Param("version") int version);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE AuctionEntity a SET a.status = :status, a.version = a.version + 1, a.betsCount = a.betsCount + 1 "
+            + "WHERE a.id = :id AND a.version = :version")
+    int updateStatusAndBumpVersionCountingBet(@Param("id") UUID id, @Param("status") String status, @Param("version") int version);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE AuctionEntity a SET a.status = :newStatus, a.version = a.version + 1 WHERE a.id IN :ids AND a.status = :currentStatus")
+    int updateStatusesAndBumpVersions(@Param("ids") Collection<UUID> ids, @Param("currentStatus") String currentStatus, @Param("newStatus") String newStatus);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE AuctionEntity a SET a.status = :newStatus, a.version = a.version + 1 WHERE a.id IN :ids AND a.status = :currentStatus "
+            + "AND a.id IN (SELECT b.auction.id FROM BetEntity b WHERE b.auction.id IN :ids)")
+    int updateStatusesAndBumpVersionsWithBets(@Param("ids") Collection<UUID> ids, @Param("currentStatus") String currentStatus, @Param("newStatus") String newStatus);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE AuctionEntity a SET a.status = :newStatus, a.version = a.version + 1 WHERE a.id IN :ids AND a.status = :currentStatus "
+            + "AND a.id NOT IN (SELECT b.auction.id FROM BetEntity b WHERE b.auction.id IN :ids)")
+    int updateStatusesAndBumpVersionsWithoutBets(@Param("ids") Collection<UUID> ids, @Param("currentStatus") String currentStatus, @Param("newStatus") String newStatus);
+
 }
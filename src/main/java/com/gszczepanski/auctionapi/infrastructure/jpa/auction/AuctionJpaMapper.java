@@ -1,5 +1,7 @@
 package com.gszczepanski.auctionapi.infrastructure.jpa.auction;
 
+import java.util.Optional;
+
 import org.springframework.stereotype.Component;
 
 import com.gszczepanski.auctionapi.domain.Id;
@@ -11,13 +13,39 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.gszczepanski.auctionapi.domain.Money.Currency;
 import static com.gszczepanski.auctionapi.domain.auction.Auction.AuctionStatus;
 import static java.util.Objects.nonNull;
-import static java.util.stream.Collectors.toList;
 
 @Component
 class AuctionJpaMapper {
 
-    AuctionSnapshot fromEntity(AuctionEntity entity) {
+    AuctionSnapshot fromEntity(AuctionEntity entity, Optional<BetEntity> topBet) {
+        checkArgument(nonNull(entity), "entity is null");
+        checkArgument(nonNull(topBet), "topBet is null");
+        return toAuctionSnapshotBuilder(entity)
+                .topBet(topBet.map(this::toBetSnapshot).orElse(null))
+                .build();
+    }
+
+    AuctionSnapshot fromEntity(AuctionEntity entity, BetTally betTally) {
+        checkArgument(nonNull(entity), "entity is null");
+        checkArgument(nonNull(betTally), "betTally is null");
+        return toAuctionSnapshotBuilder(entity)
+                .topBet(betTally.getTopBet().orElse(null))
+                .betsCount(Math.toIntExact(betTally.getBetsCount()))
+                .build();
+    }
+
+    AuctionSnapshot fromHeader(AuctionEntity entity, Optional<BetEntity> topBet) {
         checkArgument(nonNull(entity), "entity is null");
+        checkArgument(nonNull(topBet), "topBet is null");
+        Optional<BetSnapshot> topBetSnapshot = topBet.map(this::toBetSnapshot);
+        Currency currency = Currency.valueOf(entity.getMinimalPrice().getCurrency());
+        return toAuctionSnapshotBuilder(entity)
+                .topBet(topBetSnapshot.orElse(null))
+                .currentAuctionedPrice(topBetSnapshot.map(BetSnapshot::getPrice).orElseGet(() -> Money.zero(currency)))
+                .build();
+    }
+
+    private AuctionSnapshot.AuctionSnapshotBuilder toAuctionSnapshotBuilder(AuctionEntity entity) {
         return AuctionSnapshot.builder()
                 .id(Id.from(entity.getId()))
                 .code(entity.getCode())
@@ -28,18 +56,12 @@ class AuctionJpaMapper {
                 ))
                 .startDate(entity.getStartDate())
                 .endDate(entity.getEndDate())
-                .bets(
-                        entity.getBets()
-                                .stream()
-                                .map(betEntity -> toBetSnapshot(betEntity))
-                                .collect(toList())
-                )
                 .creationTime(entity.getCreationTime())
                 .version(entity.getVersion())
-                .build();
+                .betsCount(entity.getBetsCount());
     }
 
-    private BetSnapshot toBetSnapshot(BetEntity betEntity) {
+    BetSnapshot toBetSnapshot(BetEntity betEntity) {
         return BetSnapshot.builder()
                 .id(Id.from(betEntity.getId()))
                 .userId(Id.from(betEntity.getUserId()))
@@ -51,39 +73,45 @@ class AuctionJpaMapper {
                 .build();
     }
 
+    BetTally toBetTally(BetLogSnapshotEntity snapshotEntity) {
+        BetSnapshot topBet = BetSnapshot.builder()
+                .id(Id.from(snapshotEntity.getTopBetId()))
+                .userId(Id.from(snapshotEntity.getTopBetUserId()))
+                .price(Money.from(
+                        snapshotEntity.getTopBetPrice().getAmount(),
+                        Currency.valueOf(snapshotEntity.getTopBetPrice().getCurrency())
+                ))
+                .creationTime(snapshotEntity.getTopBetCreationTime())
+                .build();
+        return BetTally.of(topBet, snapshotEntity.getBetsCount());
+    }
+
     AuctionEntity toEntity(AuctionSnapshot auctionSnapshot) {
         checkArgument(nonNull(auctionSnapshot), "auctionSnapshot is null");
 
         return AuctionEntity.builder()
-                .id(auctionSnapshot.getId().asString())
+                .id(auctionSnapshot.getId().asUuid())
                 .code(auctionSnapshot.getCode())
                 .startDate(auctionSnapshot.getStartDate())
                 .endDate(auctionSnapshot.getEndDate())
                 .creationTime(auctionSnapshot.getCreationTime())
                 .version(auctionSnapshot.getVersion())
                 .status(auctionSnapshot.getStatus().name())
+                .betsCount(auctionSnapshot.getBetsCount())
                 .minimalPrice(
                         new EmbeddedMoney(
                                 auctionSnapshot.getMinimalPrice().getAmount(),
                                 auctionSnapshot.getMinimalPrice().getCurrency().name()
                         )
                 )
-                .bets(
-                        auctionSnapshot.getBets()
-                                .stream()
-                                .map(betSnapshot -> toBetEntity(betSnapshot, auctionSnapshot.getId()))
-                                .collect(toList())
-                )
                 .build();
     }
 
-    BetEntity toBetEntity(BetSnapshot betSnapshot, Id auctionId) {
+    BetEntity toBetEntity(BetSnapshot betSnapshot, AuctionEntity auction) {
         return BetEntity.builder()
-                .id(betSnapshot.getId().asString())
-                .userId(betSnapshot.getUserId().asString())
-                .auction(
-                        AuctionEntity.builder().id(auctionId.asString()).build()
-                )
+                .id(betSnapshot.getId().asUuid())
+                .userId(betSnapshot.getUserId().asUuid())
+                .auction(auction)
                 .creationTime(betSnapshot.getCreationTime())
                 .price(
                         new EmbeddedMoney(
@@ -94,4 +122,22 @@ class AuctionJpaMapper {
                 .build();
     }
 
+    BetLogSnapshotEntity toBetLogSnapshotEntity(AuctionSnapshot auctionSnapshot, long lastBetLogPosition) {
+        BetSnapshot topBet = auctionSnapshot.getTopBet().orElseThrow();
+        return BetLogSnapshotEntity.builder()
+                .auctionId(auctionSnapshot.getId().asUuid())
+                .betsCount(auctionSnapshot.getBetsCount())
+                .topBetId(topBet.getId().asUuid())
+                .topBetUserId(topBet.getUserId().asUuid())
+                .topBetPrice(
+                        new EmbeddedMoney(
+                                topBet.getPrice().getAmount(),
+                                topBet.getPrice().getCurrency().name()
+                        )
+                )
+                .topBetCreationTime(topBet.getCreationTime())
+                .lastBetLogPosition(lastBetLogPosition)
+                .build();
+    }
+
 }
@@ -1,52 +1,282 @@
 package com.gszczepanski.auctionapi.infrastructure.jpa.auction;
 
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
 
+import org.hibernate.jpa.QueryHints;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Component;
 
+import com.gszczepanski.auctionapi.domain.PhaseTracer;
+import com.gszczepanski.auctionapi.domain.auction.Auction.AuctionStatus;
+import com.gszczepanski.auctionapi.domain.auction.AuctionMetrics;
 import com.gszczepanski.auctionapi.domain.auction.AuctionRepository;
 import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot;
-import com.querydsl.core.types.dsl.BooleanExpression;
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot.BetSnapshot;
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQuery;
 import lombok.RequiredArgsConstructor;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.gszczepanski.auctionapi.domain.PhaseTracer.Phase.LOOKUP;
+import static com.gszczepanski.auctionapi.domain.PhaseTracer.Phase.MAP;
+import static com.gszczepanski.auctionapi.domain.PhaseTracer.Phase.WRITE;
+import static com.gszczepanski.auctionapi.domain.auction.Auction.AuctionStatus.FINISHED_NOT_SOLD;
+import static com.gszczepanski.auctionapi.domain.auction.Auction.AuctionStatus.FINISHED_SOLD;
+import static com.gszczepanski.auctionapi.domain.auction.Auction.AuctionStatus.NOT_STARTED;
+import static com.gszczepanski.auctionapi.domain.auction.Auction.AuctionStatus.STARTED;
 import static java.util.Objects.nonNull;
+import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
 
 @Component
 @RequiredArgsConstructor
 class AuctionJpaRepository implements AuctionRepository {
 
+    private static final int STREAM_FETCH_SIZE = 500;
+
     private final AuctionJpaMapper auctionJpaMapper;
 
     private final AuctionEntityJpaRepository auctionEntityJpaRepository;
 
+    private final BetEntityJpaRepository betEntityJpaRepository;
+
+    private final BetLog betLog;
+
+    private final EntityManager entityManager;
+
+    private final AuctionMetrics auctionMetrics;
+
+    private final PhaseTracer phaseTracer;
+
     @Override
     public AuctionSnapshot save(AuctionSnapshot auctionSnapshot) {
         checkArgument(nonNull(auctionSnapshot), "auctionSnapshot is null");
 
         AuctionEntity entityToSave = auctionJpaMapper.toEntity(auctionSnapshot);
         AuctionEntity savedEntity = auctionEntityJpaRepository.save(entityToSave);
-        return auctionJpaMapper.fromEntity(savedEntity);
+        return auctionJpaMapper.fromHeader(savedEntity, Optional.empty());
+    }
+
+    @Override
+    public void saveHeader(AuctionSnapshot auctionSnapshot) {
+        checkArgument(nonNull(auctionSnapshot), "auctionSnapshot is null");
+
+        UUID auctionId = auctionSnapshot.getId().asUuid();
+        int updatedRows = auctionEntityJpaRepository.updateStatusAndBumpVersion(
+                auctionId,
+                auctionSnapshot.getStatus().name(),
+                auctionSnapshot.getVersion()
+        );
+        checkUpdated(updatedRows, auctionId);
+    }
+
+    @Override
+    public void appendBet(AuctionSnapshot auctionSnapshot, BetSnapshot betSnapshot) {
+        checkArgument(nonNull(auctionSnapshot), "auctionSnapshot is null");
+        checkArgument(nonNull(betSnapshot), "betSnapshot is null");
+
+        UUID auctionId = auctionSnapshot.getId().asUuid();
+        int updatedRows = auctionEntityJpaRepository.updateStatusAndBumpVersionCountingBet(
+                auctionId,
+                auctionSnapshot.getStatus().name(),
+                auctionSnapshot.getVersion()
+        );
+        checkUpdated(updatedRows, auctionId);
+
+        AuctionEntity auctionReference = entityManager.getReference(AuctionEntity.class, auctionId);
+        entityManager.persist(auctionJpaMapper.toBetEntity(betSnapshot, auctionReference));
+        betLog.appended(auctionSnapshot, betSnapshot);
+    }
+
+    @Override
+    public List<AuctionSnapshot> startEligible(OffsetDateTime startDateTo, int limit) {
+        checkArgument(nonNull(startDateTo), "startDateTo is null");
+        checkArgument(limit > 0, "limit must be positive");
+
+        List<UUID> ids = lockIds(AuctionQuery.builder()
+                .statuses(List.of(NOT_STARTED))
+                .startDateTo(startDateTo)
+                .limit(limit)
+                .build());
+        phaseTracer.mark(LOOKUP);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        auctionEntityJpaRepository.updateStatusesAndBumpVersions(ids, NOT_STARTED.name(), STARTED.name());
+        phaseTracer.mark(WRITE);
+        List<AuctionSnapshot> started = findHeaders(ids, List.of(STARTED), Map.of());
+        phaseTracer.mark(MAP);
+        return started;
+    }
+
+    @Override
+    public List<AuctionSnapshot> finishEligible(OffsetDateTime endDateBefore, int limit) {
+        checkArgument(nonNull(endDateBefore), "endDateBefore is null");
+        checkArgument(limit > 0, "limit must be positive");
+
+        List<UUID> ids = lockIds(AuctionQuery.builder()
+                .statuses(List.of(STARTED))
+                .endDateBefore(endDateBefore)
+                .limit(limit)
+                .build());
+        phaseTracer.mark(LOOKUP);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        auctionEntityJpaRepository.updateStatusesAndBumpVersionsWithBets(ids, STARTED.name(), FINISHED_SOLD.name());
+        auctionEntityJpaRepository.updateStatusesAndBumpVersionsWithoutBets(ids, STARTED.name(), FINISHED_NOT_SOLD.name());
+        phaseTracer.mark(WRITE);
+        List<AuctionSnapshot> finished = findHeaders(ids, List.of(FINISHED_SOLD, FINISHED_NOT_SOLD), findTopBets(ids));
+        phaseTracer.mark(MAP);
+        return finished;
     }
 
     @Override
     public Optional<AuctionSnapshot> findOne(AuctionQuery query) {
         checkArgument(nonNull(query), "query is null");
 
-        BooleanExpression predicate = AuctionEntity.createPredicateFrom(query);
-        Optional<AuctionEntity> maybeAuction = auctionEntityJpaRepository.findOne(predicate);
-        return maybeAuction.map(auctionJpaMapper::fromEntity);
+        return timed("findOne", query.shape(), () -> {
+            Predicate predicate = AuctionEntity.createPredicateFrom(query);
+            Optional<AuctionEntity> maybeAuction = auctionEntityJpaRepository.findOne(predicate);
+            if (maybeAuction.isEmpty()) {
+                return Optional.empty();
+            }
+
+            AuctionEntity auction = maybeAuction.get();
+            BetTally betTally = betLog.tally(auction);
+            phaseTracer.mark(LOOKUP);
+            AuctionSnapshot snapshot = auctionJpaMapper.fromEntity(auction, betTally);
+            phaseTracer.mark(MAP);
+            return Optional.of(snapshot);
+        });
     }
 
     @Override
     public List<AuctionSnapshot> findAll(AuctionQuery query) {
         checkArgument(nonNull(query), "query is null");
 
-        BooleanExpression predicate = AuctionEntity.createPredicateFrom(query);
-        return auctionEntityJpaRepository.findAll(predicate).stream()
-                .map(auctionJpaMapper::fromEntity)
+        return timed("findAll", query.shape(), () -> {
+            List<AuctionEntity> auctions = createJpaQuery(query).fetch();
+            if (auctions.isEmpty()) {
+                return List.of();
+            }
+
+            List<UUID> ids = auctions.stream().map(AuctionEntity::getId).collect(toList());
+            Map<UUID, BetEntity> topBets = findTopBets(ids);
+            return auctions.stream()
+                    .map(auction -> auctionJpaMapper.fromEntity(auction, Optional.ofNullable(topBets.get(auction.getId()))))
+                    .collect(toList());
+        });
+    }
+
+    @Override
+    public List<BetSnapshot> findBets(BetHistoryQuery query) {
+        checkArgument(nonNull(query), "query is null");
+
+        return timed("findBets", query.shape(), () -> {
+            UUID auctionId = query.getAuctionId().asUuid();
+            Pageable page = PageRequest.of(0, query.getLimit());
+            List<BetEntity> bets = query.getAfterCreationTime().isPresent() && query.getAfterId().isPresent()
+                    ? betEntityJpaRepository.findHistoryPageAfter(
+                    auctionId, query.getAfterCreationTime().get(), query.getAfterId().get().asUuid(), page)
+                    : betEntityJpaRepository.findHistoryFirstPage(auctionId, page);
+            return bets.stream()
+                    .map(auctionJpaMapper::toBetSnapshot)
+                    .collect(toList());
+        });
+    }
+
+    @Override
+    public Stream<AuctionSnapshot> streamAll(AuctionQuery query) {
+        checkArgument(nonNull(query), "query is null");
+
+        CloseableIterator<AuctionEntity> entities = createJpaQuery(query)
+                .setHint(QueryHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .iterate();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(entities, Spliterator.ORDERED), false)
+                .onClose(entities::close)
+                .map(entity -> {
+                    AuctionSnapshot snapshot = auctionJpaMapper.fromHeader(entity, Optional.empty());
+                    entityManager.detach(entity);
+                    return snapshot;
+                });
+    }
+
+    private static void checkUpdated(int updatedRows, UUID auctionId) {
+        if (updatedRows == 0) {
+            throw new ObjectOptimisticLockingFailureException(AuctionEntity.class, auctionId);
+        }
+    }
+
+    private <T> T timed(String operation, String shape, Supplier<T> query) {
+        long start = System.nanoTime();
+        try {
+            return query.get();
+        } finally {
+            auctionMetrics.recordQuery(operation, shape, System.nanoTime() - start);
+        }
+    }
+
+    private static BetEntity later(BetEntity bet, BetEntity other) {
+        return bet.getCreationTime().isAfter(other.getCreationTime()) ? bet : other;
+    }
+
+    private List<UUID> lockIds(AuctionQuery query) {
+        QAuctionEntity auction = QAuctionEntity.auctionEntity;
+        return new JPAQuery<UUID>(entityManager)
+                .select(auction.id)
+                .from(auction)
+                .where(AuctionEntity.createPredicateFrom(query))
+                .orderBy(auction.id.asc())
+                .limit(query.getLimit().orElseThrow())
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .fetch();
+    }
+
+    private Map<UUID, BetEntity> findTopBets(List<UUID> ids) {
+        return betEntityJpaRepository.findTopByAuctionIds(ids).stream()
+                .collect(toMap(bet -> bet.getAuction().getId(), identity(), AuctionJpaRepository::later));
+    }
+
+    private List<AuctionSnapshot> findHeaders(List<UUID> ids, List<AuctionStatus> statuses, Map<UUID, BetEntity> topBets) {
+        QAuctionEntity auction = QAuctionEntity.auctionEntity;
+        return new JPAQuery<AuctionEntity>(entityManager)
+                .select(auction)
+                .from(auction)
+                .where(auction.id.in(ids), auction.status.in(statuses.stream().map(AuctionStatus::name).collect(toList())))
+                .orderBy(auction.id.asc())
+                .fetch().stream()
+                .map(entity -> auctionJpaMapper.fromHeader(entity, Optional.ofNullable(topBets.get(entity.getId()))))
                 .collect(toList());
     }
+
+    private JPAQuery<AuctionEntity> createJpaQuery(AuctionQuery query) {
+        QAuctionEntity auction = QAuctionEntity.auctionEntity;
+        JPAQuery<AuctionEntity> jpaQuery = new JPAQuery<AuctionEntity>(entityManager)
+                .select(auction)
+                .from(auction)
+                .where(AuctionEntity.createPredicateFrom(query))
+                .orderBy(auction.id.asc());
+        query.getLimit().ifPresent(jpaQuery::limit);
+        return jpaQuery;
+    }
 }
@@ -1,6 +1,7 @@
 package com.gszczepanski.auctionapi.infrastructure.jpa.auction;
 
 import java.time.OffsetDateTime;
+import java.util.UUID;
 import javax.persistence.AttributeOverride;
 import javax.persistence.AttributeOverrides;
 import javax.persistence.Column;
@@ -26,9 +27,9 @@ import lombok.NoArgsConstructor;
 public class BetEntity {
 
     @Id
-    private String id;
+    private UUID id;
 
-    private String userId;
+    private UUID userId;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "auction_id")
@@ -45,4 +46,10 @@ public class BetEntity {
 
     private OffsetDateTime creationTime;
 
+    /**
+     * Assigned by the database on insert, increasing in the order bets of one auction are appended.
+     */
+    @Column(insertable = false, updatable = false)
+    private Long logPosition;
+
 }
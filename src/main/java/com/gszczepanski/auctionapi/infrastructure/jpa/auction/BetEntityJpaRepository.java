@@ -0,0 +1,42 @@
+package com.gszczepanski.auctionapi.infrastructure.jpa.auction;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import lombok.Generated;
+
+@Generated
+public interface BetEntityJpaRepository extends Repository<BetEntity, UUID> {
+
+    @Query("SELECT b FROM BetEntity b WHERE b.auction.id = :auctionId ORDER BY b.price.amount DESC, b.creationTime DESC")
+    List<BetEntity> findTopByAuctionId(@Param("auctionId") UUID auctionId, Pageable pageable);
+
+    @Query("SELECT b FROM BetEntity b WHERE b.auction.id IN :auctionIds AND b.price.amount = "
+            + "(SELECT MAX(top.price.amount) FROM BetEntity top WHERE top.auction.id = b.auction.id)")
+    List<BetEntity> findTopByAuctionIds(@Param("auctionIds") Collection<UUID> auctionIds);
+
+    @Query("SELECT b FROM BetEntity b WHERE b.auction.id = :auctionId ORDER BY b.creationTime ASC, b.id ASC")
+    List<BetEntity> findHistoryFirstPage(@Param("auctionId") UUID auctionId, Pageable pageable);
+
+    @Query("SELECT b FROM BetEntity b WHERE b.auction.id = :auctionId "
+            + "AND (b.creationTime > :afterCreationTime OR (b.creationTime = :afterCreationTime AND b.id > :afterId)) "
+            + "ORDER BY b.creationTime ASC, b.id ASC")
+    List<BetEntity> findHistoryPageAfter(@Param("auctionId") UUID auctionId,
+                                         @Param("afterCreationTime") OffsetDateTime afterCreationTime,
+                                         @Param("afterId") UUID afterId,
+                                         Pageable pageable);
+
+    @Query("SELECT b FROM BetEntity b WHERE b.auction.id = :auctionId AND b.logPosition > :afterLogPosition ORDER BY b.logPosition ASC")
+    List<BetEntity> findLogAfter(@Param("auctionId") UUID auctionId, @Param("afterLogPosition") long afterLogPosition);
+
+    @Query("SELECT b.logPosition FROM BetEntity b WHERE b.id = :id")
+    long findLogPosition(@Param("id") UUID id);
+
+}
@@ -0,0 +1,19 @@
+package com.gszczepanski.auctionapi.infrastructure.jpa.auction;
+
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot;
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot.BetSnapshot;
+
+/**
+ * Reads the state of an auction's bets from the append-only {@code bets} table. How it gets there is selected by
+ * {@code auction.storage.mode}.
+ */
+interface BetLog {
+
+    BetTally tally(AuctionEntity auction);
+
+    /**
+     * Called in the transaction appending the bet, with the auction snapshot already counting it.
+     */
+    void appended(AuctionSnapshot auction, BetSnapshot bet);
+
+}
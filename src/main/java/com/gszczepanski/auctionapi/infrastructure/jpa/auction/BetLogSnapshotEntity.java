@@ -0,0 +1,51 @@
+package com.gszczepanski.auctionapi.infrastructure.jpa.auction;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import javax.persistence.AttributeOverride;
+import javax.persistence.AttributeOverrides;
+import javax.persistence.Column;
+import javax.persistence.Embedded;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tally of an auction's bets up to and including the bet at {@code lastBetLogPosition}.
+ */
+@Entity
+@Table(name = "bet_log_snapshots")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+public class BetLogSnapshotEntity {
+
+    @Id
+    private UUID auctionId;
+
+    private int betsCount;
+
+    private UUID topBetId;
+
+    private UUID topBetUserId;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "amount",
+                    column = @Column(name = "top_bet_price_amount")),
+            @AttributeOverride(name = "currency",
+                    column = @Column(name = "top_bet_price_currency"))
+    })
+    private EmbeddedMoney topBetPrice;
+
+    private OffsetDateTime topBetCreationTime;
+
+    private long lastBetLogPosition;
+
+}
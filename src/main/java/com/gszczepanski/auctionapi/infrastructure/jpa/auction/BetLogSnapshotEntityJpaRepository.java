@@ -0,0 +1,17 @@
+package com.gszczepanski.auctionapi.infrastructure.jpa.auction;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.repository.Repository;
+
+import lombok.Generated;
+
+@Generated
+public interface BetLogSnapshotEntityJpaRepository extends Repository<BetLogSnapshotEntity, UUID> {
+
+    Optional<BetLogSnapshotEntity> findById(UUID auctionId);
+
+    BetLogSnapshotEntity save(BetLogSnapshotEntity snapshot);
+
+}
@@ -0,0 +1,44 @@
+package com.gszczepanski.auctionapi.infrastructure.jpa.auction;
+
+import java.util.Optional;
+
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot.BetSnapshot;
+import lombok.Getter;
+import lombok.Value;
+
+import static lombok.AccessLevel.NONE;
+
+/**
+ * Top bet and bets count of an auction, the state folded from its bet log.
+ */
+@Value
+class BetTally {
+
+    private static final BetTally EMPTY = new BetTally(null, 0);
+
+    @Getter(NONE)
+    private final BetSnapshot topBet;
+
+    private final long betsCount;
+
+    static BetTally empty() {
+        return EMPTY;
+    }
+
+    static BetTally of(BetSnapshot topBet, long betsCount) {
+        return new BetTally(topBet, betsCount);
+    }
+
+    Optional<BetSnapshot> getTopBet() {
+        return Optional.ofNullable(topBet);
+    }
+
+    /**
+     * Folds in a bet placed after all the counted ones, so it wins a price tie.
+     */
+    BetTally with(BetSnapshot bet) {
+        BetSnapshot newTopBet = topBet == null || bet.getPrice().isGreaterThanOrEqualTo(topBet.getPrice()) ? bet : topBet;
+        return new BetTally(newTopBet, betsCount + 1);
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.gszczepanski.auctionapi.infrastructure.jpa.auction;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot;
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot.BetSnapshot;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Reads the top bet by index and takes the bets count kept on the auction row, so no aggregate runs per lookup.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "auction.storage.mode", havingValue = "state", matchIfMissing = true)
+class QueryingBetLog implements BetLog {
+
+    private static final Pageable TOP_BET = PageRequest.of(0, 1);
+
+    private final AuctionJpaMapper auctionJpaMapper;
+
+    private final BetEntityJpaRepository betEntityJpaRepository;
+
+    @Override
+    public BetTally tally(AuctionEntity auction) {
+        BetSnapshot topBet = betEntityJpaRepository.findTopByAuctionId(auction.getId(), TOP_BET).stream()
+                .findFirst()
+                .map(auctionJpaMapper::toBetSnapshot)
+                .orElse(null);
+        return BetTally.of(topBet, auction.getBetsCount());
+    }
+
+    @Override
+    public void appended(AuctionSnapshot auction, BetSnapshot bet) {
+        // nothing is derived from the log up front
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.gszczepanski.auctionapi.infrastructure.jpa.auction;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot;
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot.BetSnapshot;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Treats bets as the event log of their auction. Every {@code snapshot-interval} appended bets the tally is stored in
+ * {@code bet_log_snapshots} together with the log position it covers, so restoring a tally reads the snapshot and
+ * replays only the bets placed after it, at most {@code snapshot-interval - 1} of them.
+ * <p>
+ * Log positions are assigned by the database on insert. Bets of one auction are appended under its row lock, so
+ * their positions follow placement order, unlike creation times and identifiers. Snapshots are taken on
+ * {@link #appended(AuctionSnapshot, BetSnapshot)} only, which bets written behind by the sharded engine bypass, so the
+ * sharded engine is rejected.
+ */
+@Component
+@ConditionalOnProperty(name = "auction.storage.mode", havingValue = "event-sourced")
+class SnapshottingBetLog implements BetLog {
+
+    private final AuctionJpaMapper auctionJpaMapper;
+
+    private final BetEntityJpaRepository betEntityJpaRepository;
+
+    private final BetLogSnapshotEntityJpaRepository betLogSnapshotEntityJpaRepository;
+
+    private final int snapshotInterval;
+
+    SnapshottingBetLog(AuctionJpaMapper auctionJpaMapper,
+                       BetEntityJpaRepository betEntityJpaRepository,
+                       BetLogSnapshotEntityJpaRepository betLogSnapshotEntityJpaRepository,
+                       @Value("${auction.storage.snapshot-interval:100}") int snapshotInterval,
+                       @Value("${auction.engine.mode:database}") String engineMode) {
+        checkArgument(snapshotInterval > 0, "snapshotInterval must be positive");
+        checkState(!"sharded".equals(engineMode), "event-sourced storage does not support the sharded engine");
+
+        this.auctionJpaMapper = auctionJpaMapper;
+        this.betEntityJpaRepository = betEntityJpaRepository;
+        this.betLogSnapshotEntityJpaRepository = betLogSnapshotEntityJpaRepository;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    @Override
+    public BetTally tally(AuctionEntity auction) {
+        UUID auctionId = auction.getId();
+        Optional<BetLogSnapshotEntity> snapshot = betLogSnapshotEntityJpaRepository.findById(auctionId);
+        List<BetEntity> events = betEntityJpaRepository.findLogAfter(
+                auctionId, snapshot.map(BetLogSnapshotEntity::getLastBetLogPosition).orElse(0L));
+
+        BetTally tally = snapshot.map(auctionJpaMapper::toBetTally).orElseGet(BetTally::empty);
+        for (BetEntity event : events) {
+            tally = tally.with(auctionJpaMapper.toBetSnapshot(event));
+        }
+        return tally;
+    }
+
+    @Override
+    public void appended(AuctionSnapshot auction, BetSnapshot bet) {
+        checkArgument(auction.getBetsCount() > 0, "auction does not count the appended bet");
+
+        if (auction.getBetsCount() % snapshotInterval == 0) {
+            long lastBetLogPosition = betEntityJpaRepository.findLogPosition(bet.getId().asUuid());
+            betLogSnapshotEntityJpaRepository.save(auctionJpaMapper.toBetLogSnapshotEntity(auction, lastBetLogPosition));
+        }
+    }
+
+}
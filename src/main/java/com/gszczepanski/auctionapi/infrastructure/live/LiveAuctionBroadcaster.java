@@ -0,0 +1,239 @@
+package com.gszczepanski.auctionapi.infrastructure.live;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResult;
+import com.gszczepanski.auctionapi.domain.auction.AuctionEventPublisher;
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResultStatus.SUCCESS;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Fans auction events out to live subscribers, grouped in one feed per auction code. A feed keeps the latest update
+ * of its auction, so only the first subscriber of an auction reads it from the database. Updates are pushed after
+ * the publishing transaction commits. Each subscriber holds at most one pending update, so a slow consumer skips
+ * intermediate states and only receives the latest one once it catches up.
+ */
+@Slf4j
+@Component
+class LiveAuctionBroadcaster implements AuctionEventPublisher {
+
+    private final ConcurrentMap<String, AuctionFeed> feeds = new ConcurrentHashMap<>();
+
+    private final ExecutorService sender;
+
+    LiveAuctionBroadcaster(@Value("${auction.live.sender-threads:4}") int senderThreads) {
+        checkArgument(senderThreads > 0, "senderThreads must be positive");
+
+        this.sender = Executors.newFixedThreadPool(senderThreads,
+                new ThreadFactoryBuilder().setNameFormat("live-auction-sender-%d").setDaemon(true).build()
+        );
+    }
+
+    /**
+     * @return false when there is no auction for the code, the sink is not subscribed then
+     */
+    boolean subscribe(String auctionCode, LiveAuctionSink sink, Supplier<Optional<AuctionSnapshot>> currentState) {
+        checkArgument(nonNull(auctionCode), "auctionCode is null");
+        checkArgument(nonNull(sink), "sink is null");
+        checkArgument(nonNull(currentState), "currentState is null");
+
+        Subscriber subscriber = new Subscriber(auctionCode, sink);
+        AuctionFeed feed = feeds.compute(auctionCode, (code, current) -> {
+            AuctionFeed result = nonNull(current) ? current : new AuctionFeed();
+            result.subscribers.put(sink, subscriber);
+            return result;
+        });
+
+        LiveAuctionUpdate latest = feed.latest.get();
+        if (nonNull(latest)) {
+            subscriber.push(latest);
+            return true;
+        }
+        Optional<AuctionSnapshot> snapshot = currentState.get();
+        if (snapshot.isEmpty()) {
+            unsubscribe(auctionCode, sink);
+            return false;
+        }
+        feed.offer(LiveAuctionUpdate.from(snapshot.get()));
+        return true;
+    }
+
+    void unsubscribe(String auctionCode, LiveAuctionSink sink) {
+        feeds.computeIfPresent(auctionCode, (code, feed) -> {
+            feed.subscribers.remove(sink);
+            return feed.subscribers.isEmpty() ? null : feed;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        sender.shutdown();
+        sender.awaitTermination(5, TimeUnit.SECONDS);
+        feeds.values().forEach(feed -> feed.subscribers.keySet().forEach(LiveAuctionSink::close));
+    }
+
+    @Override
+    public void publishAuctionCreated(AuctionSnapshot snapshot) {
+        // nobody can be subscribed to an auction before it is created
+    }
+
+    @Override
+    public void publishAuctionStarted(AuctionSnapshot snapshot) {
+        publishAfterCommit(snapshot);
+    }
+
+    @Override
+    public void publishAuctionFinished(AuctionSnapshot snapshot) {
+        publishAfterCommit(snapshot);
+    }
+
+    @Override
+    public void publishAuctionsStarted(List<AuctionSnapshot> snapshots) {
+        snapshots.forEach(this::publishAfterCommit);
+    }
+
+    @Override
+    public void publishAuctionsFinished(List<AuctionSnapshot> snapshots) {
+        snapshots.forEach(this::publishAfterCommit);
+    }
+
+    @Override
+    public void publishBetOperationPerformed(AuctionSnapshot snapshot, PlaceBetResult placeBetResult) {
+        if (placeBetResult.getStatus() == SUCCESS) {
+            publishAfterCommit(snapshot);
+        }
+    }
+
+    @Override
+    public void publishBetOperationsPerformed(List<BetOperation> operations) {
+        operations.forEach(operation -> publishBetOperationPerformed(operation.getSnapshot(), operation.getPlaceBetResult()));
+    }
+
+    /**
+     * The feed is looked up only once the transaction commits, a first subscriber arriving before that may have read
+     * the pre-commit state and still has to receive the update.
+     */
+    private void publishAfterCommit(AuctionSnapshot snapshot) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            offer(snapshot);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                offer(snapshot);
+            }
+        });
+    }
+
+    private void offer(AuctionSnapshot snapshot) {
+        if (feeds.containsKey(snapshot.getCode())) {
+            offer(LiveAuctionUpdate.from(snapshot));
+        }
+    }
+
+    private void offer(LiveAuctionUpdate update) {
+        AuctionFeed feed = feeds.get(update.getAuctionCode());
+        if (nonNull(feed)) {
+            feed.offer(update);
+        }
+    }
+
+    private static LiveAuctionUpdate newer(LiveAuctionUpdate current, LiveAuctionUpdate candidate) {
+        if (isNull(current)) {
+            return candidate;
+        }
+        return candidate.isNewerThan(current) ? candidate.withTopBetFrom(current) : current;
+    }
+
+    private static final class AuctionFeed {
+
+        private final AtomicReference<LiveAuctionUpdate> latest = new AtomicReference<>();
+
+        private final ConcurrentMap<LiveAuctionSink, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+        private void offer(LiveAuctionUpdate update) {
+            LiveAuctionUpdate previous = latest.get();
+            LiveAuctionUpdate accepted = latest.accumulateAndGet(update, LiveAuctionBroadcaster::newer);
+            if (accepted != previous) {
+                subscribers.values().forEach(subscriber -> subscriber.push(accepted));
+            }
+        }
+
+    }
+
+    @RequiredArgsConstructor
+    private final class Subscriber {
+
+        private final String auctionCode;
+
+        private final LiveAuctionSink sink;
+
+        private final AtomicReference<LiveAuctionUpdate> pending = new AtomicReference<>();
+
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private LiveAuctionUpdate lastSent;
+
+        private void push(LiveAuctionUpdate update) {
+            pending.accumulateAndGet(update, LiveAuctionBroadcaster::newer);
+            scheduleSending();
+        }
+
+        private void scheduleSending() {
+            if (sending.compareAndSet(false, true)) {
+                sender.execute(this::sendPending);
+            }
+        }
+
+        /**
+         * Runs on one sender thread at a time, guarded by the sending flag.
+         */
+        private void sendPending() {
+            try {
+                LiveAuctionUpdate update;
+                while (nonNull(update = pending.getAndSet(null))) {
+                    if (isNull(lastSent) || update.isNewerThan(lastSent)) {
+                        sink.send(update);
+                        lastSent = update;
+                    }
+                }
+            } catch (IOException | RuntimeException exception) {
+                log.debug("Dropping live subscriber of auction {}", auctionCode, exception);
+                unsubscribe(auctionCode, sink);
+                sink.close();
+                return;
+            } finally {
+                sending.set(false);
+            }
+            if (nonNull(pending.get())) {
+                scheduleSending();
+            }
+        }
+
+    }
+
+}
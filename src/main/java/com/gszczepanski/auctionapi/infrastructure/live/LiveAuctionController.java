@@ -0,0 +1,66 @@
+package com.gszczepanski.auctionapi.infrastructure.live;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.gszczepanski.auctionapi.domain.auction.Auctions;
+
+/**
+ * Streams {@link LiveAuctionUpdate}s of one auction as server-sent events, starting with its current state.
+ */
+@RestController
+class LiveAuctionController {
+
+    private static final String UPDATE_EVENT = "auction";
+
+    private final LiveAuctionBroadcaster liveAuctionBroadcaster;
+
+    private final Auctions auctions;
+
+    private final long emitterTimeoutMillis;
+
+    LiveAuctionController(LiveAuctionBroadcaster liveAuctionBroadcaster,
+                          Auctions auctions,
+                          @Value("${auction.live.emitter-timeout:30m}") Duration emitterTimeout) {
+        this.liveAuctionBroadcaster = liveAuctionBroadcaster;
+        this.auctions = auctions;
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+    }
+
+    @GetMapping(path = "/auctions/{auctionCode}/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter live(@PathVariable String auctionCode) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        LiveAuctionSink sink = new LiveAuctionSink() {
+            @Override
+            public void send(LiveAuctionUpdate update) throws IOException {
+                emitter.send(SseEmitter.event().name(UPDATE_EVENT).data(update, MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void close() {
+                emitter.complete();
+            }
+        };
+        emitter.onCompletion(() -> liveAuctionBroadcaster.unsubscribe(auctionCode, sink));
+        emitter.onTimeout(() -> {
+            liveAuctionBroadcaster.unsubscribe(auctionCode, sink);
+            emitter.complete();
+        });
+        emitter.onError(error -> liveAuctionBroadcaster.unsubscribe(auctionCode, sink));
+
+        if (!liveAuctionBroadcaster.subscribe(auctionCode, sink, () -> auctions.findOne(auctionCode))) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Auction not found for code " + auctionCode);
+        }
+        return emitter;
+    }
+
+}
@@ -0,0 +1,11 @@
+package com.gszczepanski.auctionapi.infrastructure.live;
+
+import java.io.IOException;
+
+interface LiveAuctionSink {
+
+    void send(LiveAuctionUpdate update) throws IOException;
+
+    void close();
+
+}
@@ -0,0 +1,82 @@
+package com.gszczepanski.auctionapi.infrastructure.live;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.gszczepanski.auctionapi.domain.auction.Auction.AuctionStatus;
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot;
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot.BetSnapshot;
+import lombok.Builder;
+import lombok.Value;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.nonNull;
+
+/**
+ * State of an auction pushed to live subscribers. Status only moves forward and bets count only grows, so together
+ * they order updates produced concurrently for one auction.
+ */
+@Value
+@Builder(toBuilder = true)
+class LiveAuctionUpdate {
+
+    private final String auctionCode;
+
+    private final AuctionStatus status;
+
+    private final BigDecimal currentAuctionedPrice;
+
+    private final String currency;
+
+    private final int betsCount;
+
+    private final TopBet topBet;
+
+    static LiveAuctionUpdate from(AuctionSnapshot snapshot) {
+        checkArgument(nonNull(snapshot), "snapshot is null");
+        return LiveAuctionUpdate.builder()
+                .auctionCode(snapshot.getCode())
+                .status(snapshot.getStatus())
+                .currentAuctionedPrice(snapshot.getCurrentAuctionedPrice().getAmount())
+                .currency(snapshot.getCurrentAuctionedPrice().getCurrency().name())
+                .betsCount(snapshot.getBetsCount())
+                .topBet(snapshot.getTopBet().map(TopBet::from).orElse(null))
+                .build();
+    }
+
+    @JsonIgnore
+    boolean isNewerThan(LiveAuctionUpdate update) {
+        if (status != update.status) {
+            return status.ordinal() > update.status.ordinal();
+        }
+        return betsCount > update.betsCount;
+    }
+
+    /**
+     * Header only snapshots, e.g. from bulk lifecycle transitions, carry no bets, so the top bet is kept from the
+     * previous update as long as no bet was placed in between.
+     */
+    LiveAuctionUpdate withTopBetFrom(LiveAuctionUpdate previous) {
+        if (nonNull(topBet) || previous.betsCount != betsCount) {
+            return this;
+        }
+        return toBuilder().topBet(previous.topBet).build();
+    }
+
+    @Value
+    static class TopBet {
+
+        private final String userId;
+
+        private final BigDecimal price;
+
+        private final OffsetDateTime creationTime;
+
+        private static TopBet from(BetSnapshot bet) {
+            return new TopBet(bet.getUserId().asString(), bet.getPrice().getAmount(), bet.getCreationTime());
+        }
+
+    }
+
+}
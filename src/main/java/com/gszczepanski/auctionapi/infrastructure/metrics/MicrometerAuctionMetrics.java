@@ -0,0 +1,159 @@
+package com.gszczepanski.auctionapi.infrastructure.metrics;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResultStatus;
+import com.gszczepanski.auctionapi.domain.auction.AuctionMetrics;
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Meters of the hot paths, scraped from {@code /actuator/prometheus}. Latencies publish histogram buckets, so
+ * percentiles can be aggregated across nodes. Meters with a fixed set of tags are registered up front, the others are
+ * registered on first use and cached, so recording stays a map lookup.
+ */
+@Component
+class MicrometerAuctionMetrics implements AuctionMetrics {
+
+    private static final String BETS_PLACED = "auction.bets.placed";
+
+    private static final String REPOSITORY_QUERIES = "auction.repository.queries";
+
+    private static final String EVENTS_PUBLISH_LAG = "auction.events.publish.lag";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<PlaceBetResultStatus, Timer> betsPlaced = new EnumMap<>(PlaceBetResultStatus.class);
+
+    private final Timer betsFailed;
+
+    private final Counter optimisticLockConflicts;
+
+    private final Map<LifecycleTransition, Timer> sweeps = new EnumMap<>(LifecycleTransition.class);
+
+    private final Map<LifecycleTransition, DistributionSummary> sweepBatches = new EnumMap<>(LifecycleTransition.class);
+
+    private final DistributionSummary betsPerFinishedAuction;
+
+    private final ConcurrentMap<String, ConcurrentMap<String, Timer>> queries = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Timer> eventPublishLags = new ConcurrentHashMap<>();
+
+    MicrometerAuctionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (PlaceBetResultStatus status : PlaceBetResultStatus.values()) {
+            betsPlaced.put(status, betsPlacedTimer(status.name()));
+        }
+        this.betsFailed = betsPlacedTimer("ERROR");
+        this.optimisticLockConflicts = Counter.builder("auction.optimistic.lock.conflicts")
+                .description("Bet batches retried after the auction version changed underneath them")
+                .register(meterRegistry);
+        for (LifecycleTransition transition : LifecycleTransition.values()) {
+            String tag = transition.name().toLowerCase(Locale.ROOT);
+            sweeps.put(transition, Timer.builder("auction.lifecycle.sweeps")
+                    .description("Duration of a whole lifecycle sweep over all eligible auctions")
+                    .tag("transition", tag)
+                    .register(meterRegistry));
+            sweepBatches.put(transition, DistributionSummary.builder("auction.lifecycle.sweep.batch")
+                    .description("Auctions transitioned by one sweep chunk")
+                    .baseUnit("auctions")
+                    .tag("transition", tag)
+                    .register(meterRegistry));
+        }
+        this.betsPerFinishedAuction = DistributionSummary.builder("auction.bets.per.auction")
+                .description("Bets placed on an auction, recorded when it finishes")
+                .baseUnit("bets")
+                .serviceLevelObjectives(1, 10, 100, 1_000, 10_000)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void recordBetPlaced(PlaceBetResultStatus status, long durationNanos) {
+        betsPlaced.get(status).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordBetFailed(long durationNanos) {
+        betsFailed.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordOptimisticLockConflict() {
+        optimisticLockConflicts.increment();
+    }
+
+    @Override
+    public void recordSweep(LifecycleTransition transition, long durationNanos) {
+        sweeps.get(transition).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordSweepBatch(LifecycleTransition transition, int auctions) {
+        sweepBatches.get(transition).record(auctions);
+    }
+
+    @Override
+    public void recordFinishedAuction(AuctionSnapshot auction) {
+        betsPerFinishedAuction.record(auction.getBetsCount());
+    }
+
+    @Override
+    public void recordQuery(String operation, String shape, long durationNanos) {
+        queryTimer(operation, shape).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordEventPublishLag(String eventType, Duration lag) {
+        eventPublishLagTimer(eventType).record(lag.isNegative() ? Duration.ZERO : lag);
+    }
+
+    private Timer queryTimer(String operation, String shape) {
+        ConcurrentMap<String, Timer> byShape = queries.get(operation);
+        if (isNull(byShape)) {
+            byShape = queries.computeIfAbsent(operation, key -> new ConcurrentHashMap<>());
+        }
+        Timer timer = byShape.get(shape);
+        if (isNull(timer)) {
+            timer = byShape.computeIfAbsent(shape, key -> Timer.builder(REPOSITORY_QUERIES)
+                    .description("Auction repository reads by operation and criteria used")
+                    .tags("operation", operation, "shape", key)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        return timer;
+    }
+
+    private Timer eventPublishLagTimer(String eventType) {
+        Timer timer = eventPublishLags.get(eventType);
+        if (isNull(timer)) {
+            timer = eventPublishLags.computeIfAbsent(eventType, key -> Timer.builder(EVENTS_PUBLISH_LAG)
+                    .description("Time from writing an auction event to the outbox until Kafka acknowledged it")
+                    .tag("type", key)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        return timer;
+    }
+
+    private Timer betsPlacedTimer(String status) {
+        return Timer.builder(BETS_PLACED)
+                .description("Latency of placing a bet, including waiting for its auction")
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+}
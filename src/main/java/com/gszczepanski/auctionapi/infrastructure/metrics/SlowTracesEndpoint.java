@@ -0,0 +1,72 @@
+package com.gszczepanski.auctionapi.infrastructure.metrics;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import com.gszczepanski.auctionapi.domain.PhaseTracer;
+import com.gszczepanski.auctionapi.domain.PhaseTracer.Phase;
+import com.gszczepanski.auctionapi.domain.PhaseTracer.TraceRecord;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * {@code GET /actuator/slowtraces?limit=&operation=} lists the slowest sampled traces with their phase breakdown in
+ * microseconds.
+ */
+@Component
+@Endpoint(id = "slowtraces")
+@RequiredArgsConstructor
+class SlowTracesEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private static final String UNATTRIBUTED = "UNATTRIBUTED";
+
+    private final PhaseTracer phaseTracer;
+
+    @ReadOperation
+    public List<SlowTrace> slowest(@Nullable Integer limit, @Nullable String operation) {
+        return phaseTracer.slowest(limit == null ? DEFAULT_LIMIT : limit, Optional.ofNullable(operation)).stream()
+                .map(SlowTrace::from)
+                .collect(toList());
+    }
+
+    @Value
+    static class SlowTrace {
+
+        private final String operation;
+
+        private final String subject;
+
+        private final Instant startTime;
+
+        private final long totalMicros;
+
+        private final Map<String, Long> phaseMicros;
+
+        private static SlowTrace from(TraceRecord record) {
+            Map<String, Long> phaseMicros = new LinkedHashMap<>();
+            for (Phase phase : Phase.values()) {
+                long nanos = record.getPhaseNanos(phase);
+                if (nanos > 0) {
+                    phaseMicros.put(phase.name(), nanos / 1_000);
+                }
+            }
+            phaseMicros.put(UNATTRIBUTED, record.getUnattributedNanos() / 1_000);
+            return new SlowTrace(record.getOperation(), record.getSubject(), record.getStartTime(),
+                    record.getTotalNanos() / 1_000, phaseMicros);
+        }
+
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.gszczepanski.auctionapi.infrastructure.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.nonNull;
+import static java.util.stream.Collectors.toList;
+
+@Component
+@RequiredArgsConstructor
+class AuctionEventOutbox {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    void append(String auctionCode, AuctionEventType type, byte[] payload) {
+        checkArgument(nonNull(auctionCode), "auctionCode is null");
+        checkArgument(nonNull(type), "type is null");
+        checkArgument(nonNull(payload), "payload is null");
+
+        jdbcTemplate.update(
+                "INSERT INTO auction_events_outbox (auction_code, event_type, payload) VALUES (?, ?, ?)",
+                auctionCode, type.name(), payload
+        );
+    }
+
+    /**
+     * @param payloads payloads keyed by auction code, appended in order, one auction may have several
+     */
+    void appendAll(AuctionEventType type, List<Map.Entry<String, byte[]>> payloads) {
+        checkArgument(nonNull(type), "type is null");
+        checkArgument(nonNull(payloads), "payloads is null");
+        if (payloads.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>(payloads.size());
+        payloads.forEach(payload -> batchArgs.add(new Object[]{payload.getKey(), type.name(), payload.getValue()}));
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO auction_events_outbox (auction_code, event_type, payload) VALUES (?, ?, ?)",
+                batchArgs
+        );
+    }
+
+    List<OutboxEvent> findOldest(int limit) {
+        checkArgument(limit > 0, "limit must be positive");
+
+        return jdbcTemplate.query(
+                "SELECT id, auction_code, event_type, payload, creation_time FROM auction_events_outbox ORDER BY id LIMIT ?",
+                (resultSet, rowNum) -> new OutboxEvent(
+                        resultSet.getLong("id"),
+                        resultSet.getString("auction_code"),
+                        AuctionEventType.valueOf(resultSet.getString("event_type")),
+                        resultSet.getBytes("payload"),
+                        resultSet.getTimestamp("creation_time").toInstant()
+                ),
+                limit
+        );
+    }
+
+    void delete(List<OutboxEvent> events) {
+        checkArgument(nonNull(events), "events is null");
+        if (events.isEmpty()) {
+            return;
+        }
+
+        namedParameterJdbcTemplate.update(
+                "DELETE FROM auction_events_outbox WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", events.stream().map(OutboxEvent::getId).collect(toList()))
+        );
+    }
+
+}
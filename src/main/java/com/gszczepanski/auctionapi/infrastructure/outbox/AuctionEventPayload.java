@@ -0,0 +1,37 @@
+package com.gszczepanski.auctionapi.infrastructure.outbox;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Value;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+
+@Value
+@Builder
+@JsonInclude(NON_NULL)
+class AuctionEventPayload {
+
+    private final AuctionEventType type;
+
+    private final String code;
+
+    private final String status;
+
+    private final int version;
+
+    private final BigDecimal price;
+
+    private final String currency;
+
+    private final String betResult;
+
+    private final String betId;
+
+    private final String userId;
+
+    private final OffsetDateTime betTime;
+
+}
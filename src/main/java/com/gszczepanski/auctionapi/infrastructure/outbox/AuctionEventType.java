@@ -0,0 +1,10 @@
+package com.gszczepanski.auctionapi.infrastructure.outbox;
+
+enum AuctionEventType {
+
+    AUCTION_CREATED,
+    AUCTION_STARTED,
+    AUCTION_FINISHED,
+    BET_OPERATION_PERFORMED
+
+}
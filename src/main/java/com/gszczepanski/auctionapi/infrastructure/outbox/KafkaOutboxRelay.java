@@ -0,0 +1,90 @@
+package com.gszczepanski.auctionapi.infrastructure.outbox;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import com.gszczepanski.auctionapi.domain.auction.AuctionMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "auction.events.relay.enabled", havingValue = "true", matchIfMissing = true)
+class KafkaOutboxRelay {
+
+    private final AuctionEventOutbox auctionEventOutbox;
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    private final String topic;
+
+    private final int batchSize;
+
+    private final AuctionMetrics auctionMetrics;
+
+    KafkaOutboxRelay(AuctionEventOutbox auctionEventOutbox,
+                     KafkaTemplate<String, byte[]> kafkaTemplate,
+                     AuctionMetrics auctionMetrics,
+                     @Value("${auction.events.topic:auction-events}") String topic,
+                     @Value("${auction.events.relay.batch-size:1000}") int batchSize) {
+        checkArgument(batchSize > 0, "batchSize must be positive");
+
+        this.auctionEventOutbox = auctionEventOutbox;
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+        this.batchSize = batchSize;
+        this.auctionMetrics = auctionMetrics;
+    }
+
+    @Scheduled(fixedDelayString = "${auction.events.relay.fixed-delay-ms:100}")
+    void relay() {
+        List<OutboxEvent> events;
+        do {
+            events = auctionEventOutbox.findOldest(batchSize);
+            if (events.isEmpty() || !send(events)) {
+                return;
+            }
+            auctionEventOutbox.delete(events);
+        } while (events.size() == batchSize);
+    }
+
+    private boolean send(List<OutboxEvent> events) {
+        List<ListenableFuture<SendResult<String, byte[]>>> results = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            results.add(kafkaTemplate.send(topic, event.getAuctionCode(), event.getPayload()));
+        }
+        kafkaTemplate.flush();
+
+        try {
+            for (ListenableFuture<SendResult<String, byte[]>> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+            Instant now = Instant.now();
+            events.forEach(event -> auctionMetrics.recordEventPublishLag(
+                    event.getType().name(), Duration.between(event.getCreationTime(), now)
+            ));
+            return true;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException exception) {
+            log.warn("Could not relay {} auction events, they will be retried", events.size(), exception);
+            return false;
+        }
+    }
+
+}
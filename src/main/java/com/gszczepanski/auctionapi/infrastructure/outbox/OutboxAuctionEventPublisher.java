@@ -0,0 +1,135 @@
+package com.gszczepanski.auctionapi.infrastructure.outbox;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResult;
+import com.gszczepanski.auctionapi.domain.auction.AuctionEventPublisher;
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot;
+import lombok.RequiredArgsConstructor;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.gszczepanski.auctionapi.infrastructure.outbox.AuctionEventType.AUCTION_CREATED;
+import static com.gszczepanski.auctionapi.infrastructure.outbox.AuctionEventType.AUCTION_FINISHED;
+import static com.gszczepanski.auctionapi.infrastructure.outbox.AuctionEventType.AUCTION_STARTED;
+import static com.gszczepanski.auctionapi.infrastructure.outbox.AuctionEventType.BET_OPERATION_PERFORMED;
+import static java.util.Objects.nonNull;
+import static java.util.stream.Collectors.toList;
+
+@Component
+@RequiredArgsConstructor
+class OutboxAuctionEventPublisher implements AuctionEventPublisher {
+
+    private final AuctionEventOutbox auctionEventOutbox;
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void publishAuctionCreated(AuctionSnapshot snapshot) {
+        append(AUCTION_CREATED, snapshot, payloadBuilderFrom(AUCTION_CREATED, snapshot));
+    }
+
+    @Override
+    public void publishAuctionStarted(AuctionSnapshot snapshot) {
+        append(AUCTION_STARTED, snapshot, payloadBuilderFrom(AUCTION_STARTED, snapshot));
+    }
+
+    @Override
+    public void publishAuctionFinished(AuctionSnapshot snapshot) {
+        append(AUCTION_FINISHED, snapshot, finishedPayloadBuilderFrom(snapshot));
+    }
+
+    @Override
+    public void publishAuctionsStarted(List<AuctionSnapshot> snapshots) {
+        appendAll(AUCTION_STARTED, snapshots, snapshot -> payloadBuilderFrom(AUCTION_STARTED, snapshot));
+    }
+
+    @Override
+    public void publishAuctionsFinished(List<AuctionSnapshot> snapshots) {
+        appendAll(AUCTION_FINISHED, snapshots, this::finishedPayloadBuilderFrom);
+    }
+
+    @Override
+    public void publishBetOperationPerformed(AuctionSnapshot snapshot, PlaceBetResult placeBetResult) {
+        append(BET_OPERATION_PERFORMED, snapshot, betOperationPayloadBuilderFrom(snapshot, placeBetResult));
+    }
+
+    @Override
+    public void publishBetOperationsPerformed(List<BetOperation> operations) {
+        checkArgument(nonNull(operations), "operations is null");
+
+        List<Map.Entry<String, byte[]>> payloads = operations.stream()
+                .map(operation -> Map.entry(
+                        operation.getSnapshot().getCode(),
+                        serialize(betOperationPayloadBuilderFrom(operation.getSnapshot(), operation.getPlaceBetResult()))
+                ))
+                .collect(toList());
+        auctionEventOutbox.appendAll(BET_OPERATION_PERFORMED, payloads);
+    }
+
+    private AuctionEventPayload.AuctionEventPayloadBuilder betOperationPayloadBuilderFrom(AuctionSnapshot snapshot, PlaceBetResult placeBetResult) {
+        checkArgument(nonNull(placeBetResult), "placeBetResult is null");
+
+        AuctionEventPayload.AuctionEventPayloadBuilder payloadBuilder = payloadBuilderFrom(BET_OPERATION_PERFORMED, snapshot)
+                .betResult(placeBetResult.getStatus().name())
+                .userId(placeBetResult.getSpecification().getUserId().asString());
+        placeBetResult.getBetSnapshot().ifPresent(bet -> payloadBuilder
+                .betId(bet.getId().asString())
+                .betTime(bet.getCreationTime())
+        );
+        return payloadBuilder;
+    }
+
+    /**
+     * Carries the winning bet of a sold auction.
+     */
+    private AuctionEventPayload.AuctionEventPayloadBuilder finishedPayloadBuilderFrom(AuctionSnapshot snapshot) {
+        AuctionEventPayload.AuctionEventPayloadBuilder payloadBuilder = payloadBuilderFrom(AUCTION_FINISHED, snapshot);
+        snapshot.getTopBet().ifPresent(bet -> payloadBuilder
+                .betId(bet.getId().asString())
+                .userId(bet.getUserId().asString())
+                .betTime(bet.getCreationTime())
+        );
+        return payloadBuilder;
+    }
+
+    private AuctionEventPayload.AuctionEventPayloadBuilder payloadBuilderFrom(AuctionEventType type, AuctionSnapshot snapshot) {
+        checkArgument(nonNull(snapshot), "snapshot is null");
+
+        return AuctionEventPayload.builder()
+                .type(type)
+                .code(snapshot.getCode())
+                .status(snapshot.getStatus().name())
+                .version(snapshot.getVersion())
+                .price(snapshot.getCurrentAuctionedPrice().getAmount())
+                .currency(snapshot.getCurrentAuctionedPrice().getCurrency().name());
+    }
+
+    private void append(AuctionEventType type, AuctionSnapshot snapshot, AuctionEventPayload.AuctionEventPayloadBuilder payloadBuilder) {
+        auctionEventOutbox.append(snapshot.getCode(), type, serialize(payloadBuilder));
+    }
+
+    private void appendAll(AuctionEventType type, List<AuctionSnapshot> snapshots,
+                           Function<AuctionSnapshot, AuctionEventPayload.AuctionEventPayloadBuilder> payloadBuilder) {
+        checkArgument(nonNull(snapshots), "snapshots is null");
+
+        List<Map.Entry<String, byte[]>> payloads = snapshots.stream()
+                .map(snapshot -> Map.entry(snapshot.getCode(), serialize(payloadBuilder.apply(snapshot))))
+                .collect(toList());
+        auctionEventOutbox.appendAll(type, payloads);
+    }
+
+    private byte[] serialize(AuctionEventPayload.AuctionEventPayloadBuilder payloadBuilder) {
+        try {
+            return objectMapper.writeValueAsBytes(payloadBuilder.build());
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("Could not serialize auction event payload", exception);
+        }
+    }
+
+}
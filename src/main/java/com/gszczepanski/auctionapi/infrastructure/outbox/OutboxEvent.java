@@ -0,0 +1,20 @@
+package com.gszczepanski.auctionapi.infrastructure.outbox;
+
+import java.time.Instant;
+
+import lombok.Value;
+
+@Value
+class OutboxEvent {
+
+    private final long id;
+
+    private final String auctionCode;
+
+    private final AuctionEventType type;
+
+    private final byte[] payload;
+
+    private final Instant creationTime;
+
+}
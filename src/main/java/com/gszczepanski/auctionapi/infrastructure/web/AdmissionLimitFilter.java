@@ -0,0 +1,74 @@
+package com.gszczepanski.auctionapi.infrastructure.web;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.nonNull;
+
+/**
+ * Lets at most as many requests in as there are pooled connections when requests run on virtual threads. Excess
+ * requests park cheaply on the semaphore instead of piling up on Hikari's connectionTimeout, and carrier threads
+ * pinned by JDBC drivers stay bounded by the pool size. Requests waiting longer than the admission timeout get 503.
+ * Async dispatches, e.g. streaming responses, do not hold a permit.
+ */
+@Component
+@ConditionalOnProperty(name = "auction.web.virtual-threads.enabled", havingValue = "true")
+class AdmissionLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+
+    private final long timeoutNanos;
+
+    @Autowired
+    AdmissionLimitFilter(HikariDataSource dataSource,
+                         @Value("${auction.web.admission.timeout:30s}") Duration timeout) {
+        this(dataSource.getMaximumPoolSize(), timeout);
+    }
+
+    AdmissionLimitFilter(int permits, Duration timeout) {
+        checkArgument(permits > 0, "permits must be positive");
+        checkArgument(nonNull(timeout) && !timeout.isNegative(), "timeout must not be negative");
+
+        this.permits = new Semaphore(permits, true);
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!tryAcquire()) {
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean tryAcquire() {
+        try {
+            return permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.gszczepanski.auctionapi.infrastructure.web;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs every Tomcat request, including the blocking JPA calls and {@code @Transactional} boundaries it goes through,
+ * on its own virtual thread. Transactions stay bound to the thread handling the request, exactly as with the platform
+ * thread pool. Virtual threads need JDK 21+ at runtime while the code is compiled for 11, so the executor is looked
+ * up reflectively and startup fails when it is not available.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "auction.web.virtual-threads.enabled", havingValue = "true")
+class VirtualThreadTomcatCustomizer implements TomcatProtocolHandlerCustomizer<ProtocolHandler> {
+
+    private static final String THREAD_NAME_PREFIX = "http-virtual-";
+
+    private final ExecutorService executor = newVirtualThreadPerTaskExecutor();
+
+    @Override
+    public void customize(ProtocolHandler protocolHandler) {
+        protocolHandler.setExecutor(executor);
+        log.info("Tomcat requests are handled on virtual threads");
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, THREAD_NAME_PREFIX, 0L);
+            ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, threadFactory);
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalStateException("auction.web.virtual-threads.enabled requires JDK 21 or newer, running on "
+                    + Runtime.version(), exception);
+        }
+    }
+
+}
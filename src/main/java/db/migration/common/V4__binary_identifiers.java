@@ -0,0 +1,73 @@
+package db.migration.common;
+
+import java.sql.SQLException;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * Moves auction, bet and user identifiers from VARCHAR UUID strings to BINARY(16). Rows are copied set-based with one
+ * INSERT ... SELECT per table, the UUID string is converted by the database with the function of its dialect. Copies
+ * left by an interrupted run are dropped first, the original tables are dropped only once both copies are complete.
+ */
+public class V4__binary_identifiers extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        boolean mySql = "MySQL".equals(context.getConnection().getMetaData().getDatabaseProductName());
+
+        jdbcTemplate.execute("DROP TABLE IF EXISTS bets_binary_ids");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS auctions_binary_ids");
+
+        jdbcTemplate.execute("CREATE TABLE auctions_binary_ids\n"
+                + "(\n"
+                + "    id BINARY(16) PRIMARY KEY NOT NULL,\n"
+                + "    code VARCHAR(20) NOT NULL,\n"
+                + "    status VARCHAR(50) NOT NULL,\n"
+                + "    minimal_price_amount NUMERIC(20,2) NOT NULL,\n"
+                + "    minimal_price_currency VARCHAR(20) NOT NULL,\n"
+                + "    start_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,\n"
+                + "    end_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,\n"
+                + "    creation_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,\n"
+                + "    version SMALLINT DEFAULT 0\n"
+                + ")");
+        jdbcTemplate.execute("CREATE TABLE bets_binary_ids\n"
+                + "(\n"
+                + "    id BINARY(16) PRIMARY KEY NOT NULL,\n"
+                + "    user_id BINARY(16) NOT NULL,\n"
+                + "    auction_id BINARY(16) NOT NULL,\n"
+                + "    price_amount NUMERIC(20,2) NOT NULL,\n"
+                + "    price_currency VARCHAR(20) NOT NULL,\n"
+                + "    creation_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,\n"
+                + "    FOREIGN KEY (auction_id) REFERENCES auctions_binary_ids(id)\n"
+                + ")");
+
+        jdbcTemplate.execute("INSERT INTO auctions_binary_ids (id, code, status, minimal_price_amount, minimal_price_currency, start_date, end_date, creation_time, version) "
+                + "SELECT " + toBinary("id", mySql) + ", code, status, minimal_price_amount, minimal_price_currency, start_date, end_date, creation_time, version "
+                + "FROM auctions");
+        jdbcTemplate.execute("INSERT INTO bets_binary_ids (id, user_id, auction_id, price_amount, price_currency, creation_time) "
+                + "SELECT " + toBinary("id", mySql) + ", " + toBinary("user_id", mySql) + ", " + toBinary("auction_id", mySql)
+                + ", price_amount, price_currency, creation_time "
+                + "FROM bets");
+
+        jdbcTemplate.execute("DROP TABLE bets");
+        jdbcTemplate.execute("DROP TABLE auctions");
+        jdbcTemplate.execute("ALTER TABLE auctions_binary_ids RENAME TO auctions");
+        jdbcTemplate.execute("ALTER TABLE bets_binary_ids RENAME TO bets");
+
+        jdbcTemplate.execute("ALTER TABLE auctions ADD CONSTRAINT uk_auctions_code UNIQUE (code)");
+        jdbcTemplate.execute("CREATE INDEX idx_auctions_status_start_date ON auctions (status, start_date)");
+        jdbcTemplate.execute("CREATE INDEX idx_auctions_status_end_date ON auctions (status, end_date)");
+        jdbcTemplate.execute("CREATE INDEX idx_bets_auction_id_price_amount ON bets (auction_id, price_amount, creation_time)");
+    }
+
+    private static String toBinary(String column, boolean mySql) {
+        return mySql
+                ? "UNHEX(REPLACE(" + column + ", '-', ''))"
+                : "CAST(CAST(" + column + " AS UUID) AS BINARY(16))";
+    }
+
+}
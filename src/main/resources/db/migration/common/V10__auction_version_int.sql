@@ -0,0 +1 @@
+ALTER TABLE auctions MODIFY COLUMN version INT DEFAULT 0;
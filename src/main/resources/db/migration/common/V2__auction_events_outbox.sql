@@ -0,0 +1,8 @@
+CREATE TABLE auction_events_outbox
+(
+    id BIGINT AUTO_INCREMENT PRIMARY KEY NOT NULL,
+    auction_code VARCHAR(20) NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload VARBINARY(1024) NOT NULL,
+    creation_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
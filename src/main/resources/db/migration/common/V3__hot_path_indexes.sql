@@ -0,0 +1,7 @@
+ALTER TABLE auctions ADD CONSTRAINT uk_auctions_code UNIQUE (code);
+
+CREATE INDEX idx_auctions_status_start_date ON auctions (status, start_date);
+
+CREATE INDEX idx_auctions_status_end_date ON auctions (status, end_date);
+
+CREATE INDEX idx_bets_auction_id_price_amount ON bets (auction_id, price_amount, creation_time);
@@ -0,0 +1 @@
+CREATE INDEX idx_bets_auction_id_creation_time_id ON bets (auction_id, creation_time, id);
@@ -0,0 +1,13 @@
+CREATE TABLE bet_log_snapshots
+(
+    auction_id BINARY(16) PRIMARY KEY NOT NULL,
+    bets_count INT NOT NULL,
+    top_bet_id BINARY(16) NOT NULL,
+    top_bet_user_id BINARY(16) NOT NULL,
+    top_bet_price_amount NUMERIC(20,2) NOT NULL,
+    top_bet_price_currency VARCHAR(20) NOT NULL,
+    top_bet_creation_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    last_bet_id BINARY(16) NOT NULL,
+    last_bet_creation_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    FOREIGN KEY (auction_id) REFERENCES auctions(id)
+);
@@ -0,0 +1 @@
+ALTER TABLE auction_events_outbox MODIFY creation_time TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3) NOT NULL;
@@ -0,0 +1,9 @@
+-- snapshots keyed on creation time and id are dropped, tallies are replayed from the whole log until the next one
+DELETE FROM bet_log_snapshots;
+
+ALTER TABLE bets ADD COLUMN log_position BIGINT NOT NULL AUTO_INCREMENT UNIQUE;
+CREATE INDEX idx_bets_auction_id_log_position ON bets (auction_id, log_position);
+
+ALTER TABLE bet_log_snapshots DROP COLUMN last_bet_id;
+ALTER TABLE bet_log_snapshots DROP COLUMN last_bet_creation_time;
+ALTER TABLE bet_log_snapshots ADD COLUMN last_bet_log_position BIGINT NOT NULL;
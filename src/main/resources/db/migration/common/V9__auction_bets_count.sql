@@ -0,0 +1,3 @@
+ALTER TABLE auctions ADD COLUMN bets_count INT DEFAULT 0 NOT NULL;
+
+UPDATE auctions SET bets_count = (SELECT COUNT(*) FROM bets WHERE bets.auction_id = auctions.id);
@@ -2,6 +2,7 @@ package com.gszczepanski.auctionapi
 
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.gszczepanski.auctionapi.AuctionApiApplication
+import com.gszczepanski.auctionapi.domain.auction.AuctionRepository
 import org.flywaydb.core.Flyway
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.boot.test.context.SpringBootTest
@@ -38,6 +39,11 @@ abstract class IntegrationBaseSpec extends Specification {
     void cleanUpDatabase() {
         flyway.clean()
         flyway.migrate()
+
+        AuctionRepository auctionRepository = context.getBean(AuctionRepository)
+        if (auctionRepository.respondsTo('invalidateAll')) {
+            auctionRepository.invalidateAll()
+        }
     }
 
 }
@@ -0,0 +1,36 @@
+package com.gszczepanski.auctionapi.domain
+
+import spock.lang.Specification
+
+class IdSpec extends Specification {
+
+    def "should generate time ordered version 7 Ids"() {
+        when:
+            Id first = Id.generate()
+            sleep(2)
+            Id second = Id.generate()
+        then:
+            first.asUuid().version() == 7
+            first.asUuid().variant() == 2
+            first.asString() < second.asString()
+    }
+
+    def "should convert Id between string, uuid and bytes"() {
+        given:
+            Id id = Id.from('3c7a4b1e-8d52-4f0a-9e6b-2a1d5c9f7e40')
+        expect:
+            Id.fromBytes(id.asBytes()) == id
+            Id.from(id.asUuid()) == id
+            id.asString() == '3c7a4b1e-8d52-4f0a-9e6b-2a1d5c9f7e40'
+            id.asBytes().encodeHex().toString() == '3c7a4b1e8d524f0a9e6b2a1d5c9f7e40'
+    }
+
+    def "should reject not valid UUID"() {
+        when:
+            Id.from('not-a-uuid')
+        then:
+            IllegalArgumentException exception = thrown()
+            exception.message == 'Not valid UUID provided as Id'
+    }
+
+}
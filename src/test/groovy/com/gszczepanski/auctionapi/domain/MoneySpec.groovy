@@ -0,0 +1,54 @@
+package com.gszczepanski.auctionapi.domain
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import static com.gszczepanski.auctionapi.domain.Money.Currency.PLN
+
+class MoneySpec extends Specification {
+
+    def "should keep amount as minor units"() {
+        when:
+            Money money = Money.from('120.5', PLN)
+        then:
+            money.minorUnits == 12050
+            money.amount == 120.50
+            money == Money.from(new BigDecimal('120.50'), PLN)
+    }
+
+    def "should reuse cached zero for currency"() {
+        expect:
+            Money.from('0.00', PLN).is(Money.zero(PLN))
+            Money.from('1', PLN).subtract(Money.from('1', PLN)).is(Money.zero(PLN))
+    }
+
+    @Unroll
+    def "should compare #left with #right"() {
+        expect:
+            Money.from(left, PLN).isGreaterThan(Money.from(right, PLN)) == greater
+            Money.from(left, PLN).isGreaterThanOrEqualTo(Money.from(right, PLN)) == greaterOrEqual
+        where:
+            left    | right   || greater | greaterOrEqual
+            '10.01' | '10'    || true    | true
+            '10'    | '10.00' || false   | true
+            '9.99'  | '10'    || false   | false
+    }
+
+    @Unroll
+    def "should reject amount #amount"() {
+        when:
+            Money.from(amount, PLN)
+        then:
+            thrown(IllegalArgumentException)
+        where:
+            amount << ['10.001', '92233720368547758.08']
+    }
+
+    def "should fail on overflow"() {
+        when:
+            Money.ofMinorUnits(Long.MAX_VALUE, PLN).add(Money.ofMinorUnits(1, PLN))
+        then:
+            thrown(ArithmeticException)
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.gszczepanski.auctionapi.domain
+
+import com.gszczepanski.auctionapi.domain.PhaseTracer.Trace
+import com.gszczepanski.auctionapi.domain.PhaseTracer.TraceRecord
+import spock.lang.Specification
+
+import java.util.concurrent.locks.LockSupport
+import java.util.function.Supplier
+
+import static com.gszczepanski.auctionapi.domain.PhaseTracer.Phase.LOOKUP
+import static com.gszczepanski.auctionapi.domain.PhaseTracer.Phase.WRITE
+
+class PhaseTracerSpec extends Specification {
+
+    def "should attribute time between marks to phases of the active trace"() {
+        given:
+            PhaseTracer tracer = new PhaseTracer(1.0, 16)
+        when:
+            Trace trace = tracer.start('placeBet', 'BBB-ASDF')
+            LockSupport.parkNanos(2_000_000)
+            tracer.mark(LOOKUP)
+            LockSupport.parkNanos(1_000_000)
+            tracer.mark(WRITE)
+            trace.close()
+        then:
+            TraceRecord record = tracer.slowest(10, Optional.empty()).first()
+            record.operation == 'placeBet'
+            record.subject == 'BBB-ASDF'
+            record.getPhaseNanos(LOOKUP) >= 2_000_000
+            record.getPhaseNanos(WRITE) >= 1_000_000
+            record.totalNanos == record.getPhaseNanos(LOOKUP) + record.getPhaseNanos(WRITE) + record.unattributedNanos
+    }
+
+    def "should record the trace of a traced call that throws"() {
+        given:
+            PhaseTracer tracer = new PhaseTracer(1.0, 16)
+        when:
+            tracer.trace('finishAuction', 'EEE-ZXCV', { throw new IllegalStateException('failed') } as Runnable)
+        then:
+            thrown(IllegalStateException)
+            tracer.slowest(10, Optional.empty())*.operation == ['finishAuction']
+        when:
+            String result = tracer.trace('startAuction', 'CCC-ZXCV', { 'started' } as Supplier)
+        then:
+            result == 'started'
+            tracer.slowest(10, Optional.of('startAuction')).size() == 1
+    }
+
+    def "should not record traces when sample rate is zero"() {
+        given:
+            PhaseTracer tracer = new PhaseTracer(0.0, 16)
+        when:
+            tracer.start('placeBet', 'BBB-ASDF').close()
+            tracer.mark(LOOKUP)
+        then:
+            tracer.slowest(10, Optional.empty()).isEmpty()
+    }
+
+    def "should record only the outermost of nested traces"() {
+        given:
+            PhaseTracer tracer = new PhaseTracer(1.0, 16)
+        when:
+            Trace outer = tracer.start('finishEligibleAuctions', null)
+            tracer.start('finishAuction', 'EEE-ZXCV').close()
+            outer.close()
+        then:
+            tracer.slowest(10, Optional.empty())*.operation == ['finishEligibleAuctions']
+    }
+
+    def "should keep only the latest traces and list the slowest first"() {
+        given:
+            PhaseTracer tracer = new PhaseTracer(1.0, 4)
+        when:
+            (1..12).each { millis ->
+                Trace trace = tracer.start(millis % 2 == 0 ? 'even' : 'odd', "${millis}")
+                LockSupport.parkNanos(millis * 100_000L)
+                trace.close()
+            }
+        then:
+            List<TraceRecord> slowest = tracer.slowest(10, Optional.empty())
+            slowest.size() <= 4
+            slowest*.totalNanos == slowest*.totalNanos.toSorted().reverse()
+            slowest*.subject.every { it.toInteger() > 8 - 4 }
+            tracer.slowest(10, Optional.of('even'))*.operation.every { it == 'even' }
+    }
+
+}
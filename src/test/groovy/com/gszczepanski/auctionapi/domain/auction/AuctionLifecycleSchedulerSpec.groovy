@@ -0,0 +1,150 @@
+package com.gszczepanski.auctionapi.domain.auction
+
+import com.gszczepanski.auctionapi.domain.Time
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.support.TransactionTemplate
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.time.Duration
+import java.time.OffsetDateTime
+import java.time.ZoneOffset
+import java.util.concurrent.ConcurrentLinkedQueue
+
+import static com.gszczepanski.auctionapi.domain.auction.Auction.AuctionStatus.FINISHED_NOT_SOLD
+import static com.gszczepanski.auctionapi.domain.auction.Auction.AuctionStatus.NOT_STARTED
+import static com.gszczepanski.auctionapi.domain.auction.Auction.AuctionStatus.STARTED
+
+class AuctionLifecycleSchedulerSpec extends Specification {
+
+    Auctions auctions = Mock()
+
+    AuctionRepository auctionRepository = Mock()
+
+    TransactionTemplate transactionTemplate = new TransactionTemplate(Mock(PlatformTransactionManager))
+
+    Time time = Stub()
+
+    Queue<String> transitions = new ConcurrentLinkedQueue<>()
+
+    PollingConditions conditions = new PollingConditions(timeout: 5)
+
+    AuctionLifecycleScheduler scheduler = givenScheduler(true)
+
+    def setup() {
+        time.now() >> { OffsetDateTime.now(ZoneOffset.UTC) }
+    }
+
+    def cleanup() {
+        scheduler.shutdown()
+    }
+
+    def "should start Auction when start date is due and then finish it when end date has passed"() {
+        given:
+            OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC)
+            AuctionSnapshot auction = givenAuction('ASD-FGH', NOT_STARTED, now.plusNanos(100_000_000), now.plusNanos(200_000_000))
+            auctions.startAuction('ASD-FGH') >> {
+                transitions.add('start')
+                Optional.of(givenAuction('ASD-FGH', STARTED, auction.startDate, auction.endDate))
+            }
+            auctions.finishAuction('ASD-FGH') >> {
+                transitions.add('finish')
+                Optional.of(givenAuction('ASD-FGH', FINISHED_NOT_SOLD, auction.startDate, auction.endDate))
+            }
+
+        when:
+            scheduler.schedule(auction)
+
+        then:
+            conditions.eventually {
+                assert transitions.toList() == ['start', 'finish']
+            }
+    }
+
+    def "should schedule created Auction from its event"() {
+        given:
+            OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC)
+            auctions.startAuction('ASD-FGH') >> {
+                transitions.add('start')
+                Optional.empty()
+            }
+
+        when:
+            scheduler.onAuctionCreated(new AuctionCreated(givenAuction('ASD-FGH', NOT_STARTED, now, now.plusHours(1))))
+
+        then:
+            conditions.eventually {
+                assert transitions.toList() == ['start']
+            }
+    }
+
+    def "should sweep eligible auctions and schedule pending ones on recovery"() {
+        given:
+            OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC)
+            auctionRepository.streamAll(_) >> { [givenAuction('XDD-HXG', STARTED, now.minusHours(1), now.plusNanos(100_000_000))].stream() }
+            auctions.finishAuction('XDD-HXG') >> {
+                transitions.add('finish')
+                Optional.empty()
+            }
+
+        when:
+            scheduler.recover()
+
+        then:
+            1 * auctions.startEligibleAuctions()
+            1 * auctions.finishEligibleAuctions()
+            conditions.eventually {
+                assert transitions.toList() == ['finish']
+            }
+    }
+
+    def "should stop retrying a failing transition after max attempts"() {
+        given:
+            OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC)
+            auctions.finishAuction('XDD-HXG') >> {
+                transitions.add('finish')
+                throw new IllegalStateException('poison auction')
+            }
+
+        when:
+            scheduler.schedule(givenAuction('XDD-HXG', STARTED, now.minusHours(1), now))
+
+        then:
+            conditions.eventually {
+                assert transitions.size() == 3
+            }
+            sleep(200)
+            transitions.size() == 3
+    }
+
+    def "should not schedule transitions when scheduler is disabled"() {
+        given:
+            AuctionLifecycleScheduler disabledScheduler = givenScheduler(false)
+            OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC)
+
+        when:
+            disabledScheduler.schedule(givenAuction('ASD-FGH', NOT_STARTED, now.minusHours(1), now.plusHours(1)))
+            disabledScheduler.recover()
+            sleep(200)
+
+        then:
+            0 * auctions._
+        cleanup:
+            disabledScheduler.shutdown()
+    }
+
+    private AuctionLifecycleScheduler givenScheduler(boolean enabled) {
+        return new AuctionLifecycleScheduler(auctions, auctionRepository, transactionTemplate, time, enabled,
+                Duration.ofMillis(10), 3, Duration.ofMinutes(1))
+    }
+
+    private static AuctionSnapshot givenAuction(String code, Auction.AuctionStatus status, OffsetDateTime startDate, OffsetDateTime endDate) {
+        return AuctionSnapshot.builder()
+                .code(code)
+                .status(status)
+                .startDate(startDate)
+                .endDate(endDate)
+                .build()
+    }
+
+}
@@ -248,6 +248,29 @@ class AuctionSpec extends Specification implements WithAuctionFixtures {
             auction.currentAuctionedPrice() == specification.getPrice()
     }
 
+    def "should count new top Bet on top of restored Bets count"() {
+        given:
+            Auction auction = givenStartedAuctionWithBets()
+
+            PlaceBetSpecification specification = PlaceBetSpecification.builder()
+                    .auctionCode(auction.getCode())
+                    .userId(Id.generate())
+                    .price(auction.currentAuctionedPrice().add(Money.from('5', PLN)))
+                    .build()
+
+            Time time = Stub()
+            time.now() >> auction.getLastBet().get().getCreationTime().plusMinutes(10)
+
+        when:
+            PlaceBetResult result = auction.placeBet(specification, time)
+
+        then:
+            result.status == SUCCESS
+            auction.currentAuctionedPrice() == specification.getPrice()
+            auction.betsCount == 4
+            auction.asSnapshot().betsCount == 4
+    }
+
     def "should finish Auction that is eligible for finishing with no bets placed"() {
         given:
             Auction auction = givenStartedAuctionWithNoBets()
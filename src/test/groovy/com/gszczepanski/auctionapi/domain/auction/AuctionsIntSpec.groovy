@@ -1,13 +1,38 @@
 package com.gszczepanski.auctionapi.domain.auction
 
 import com.gszczepanski.auctionapi.IntegrationBaseSpec
+import com.gszczepanski.auctionapi.domain.Id
+import com.gszczepanski.auctionapi.domain.Money
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot.BetSnapshot
 import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.orm.ObjectOptimisticLockingFailureException
+import org.springframework.transaction.support.TransactionTemplate
+
+import java.time.OffsetDateTime
+import java.util.concurrent.CompletableFuture
+import java.util.stream.Collectors
+
+import static com.gszczepanski.auctionapi.domain.Money.Currency.PLN
+import static com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResult
+import static com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResultStatus.FAILURE_PRICE_TOO_LOW
+import static com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResultStatus.SUCCESS
+import static com.gszczepanski.auctionapi.domain.auction.AuctionRepository.AuctionQuery.queryForCode
 
 class AuctionsIntSpec extends IntegrationBaseSpec {
 
     @Autowired
     Auctions auctions
 
+    @Autowired
+    AuctionRepository auctionRepository
+
+    @Autowired
+    TransactionTemplate transactionTemplate
+
+    @Autowired
+    JdbcTemplate jdbcTemplate
+
     def "should find Auction by auction code"() {
         given:
             String auctionCode = 'AAA-QWER'
@@ -17,9 +42,223 @@ class AuctionsIntSpec extends IntegrationBaseSpec {
             foundAuctionSnapshot.isPresent()
             AuctionSnapshot auctionSnapshot = foundAuctionSnapshot.get()
             auctionSnapshot.code == auctionCode
-            auctionSnapshot.bets.size() == 1
-            auctionSnapshot.getCurrentAuctionedPrice() == auctionSnapshot.bets[0].getPrice()
+            auctionSnapshot.betsCount == 1
+            auctionSnapshot.getCurrentAuctionedPrice() == auctionSnapshot.topBet.get().getPrice()
+        cleanup:
+            cleanUpDatabase()
+    }
+
+    def "should create Auction and find it by its code"() {
+        given:
+            OffsetDateTime startDate = OffsetDateTime.now().plusHours(1)
+            CreateAuctionSpecification specification = CreateAuctionSpecification.Builder.aCreateAuctionSpecification()
+                    .code('FFF-QWER')
+                    .minimalPrice(Money.from('100.00', PLN))
+                    .startDate(startDate)
+                    .endDate(startDate.plusHours(24))
+                    .build()
+        when:
+            Id auctionId = auctions.createAuction(specification)
+        then:
+            AuctionSnapshot auctionSnapshot = auctions.findOne('FFF-QWER').get()
+            auctionSnapshot.id == auctionId
+            auctionSnapshot.status == Auction.AuctionStatus.NOT_STARTED
+            auctionSnapshot.betsCount == 0
+        cleanup:
+            cleanUpDatabase()
+    }
+
+    def "should find Auction with top Bet only and total bets count"() {
+        when:
+            Optional<AuctionSnapshot> foundAuctionSnapshot = transactionTemplate.execute {
+                auctionRepository.findOne(queryForCode('BBB-ASDF'))
+            }
+        then:
+            foundAuctionSnapshot.isPresent()
+            AuctionSnapshot auctionSnapshot = foundAuctionSnapshot.get()
+            auctionSnapshot.topBet.get().price.amount == 130.00
+            auctionSnapshot.betsCount == 2
+        cleanup:
+            cleanUpDatabase()
+    }
+
+    def "should append new top Bet and publish the bumped Auction version when bet is placed"() {
+        given:
+            String auctionCode = 'BBB-ASDF'
+            PlaceBetSpecification specification = PlaceBetSpecification.builder()
+                    .auctionCode(auctionCode)
+                    .userId(Id.generate())
+                    .price(Money.from('150.00', PLN))
+                    .build()
+        when:
+            PlaceBetResult result = auctions.placeBet(specification)
+        then:
+            result.status == SUCCESS
+            AuctionSnapshot auctionSnapshot = auctions.findOne(auctionCode).get()
+            auctionSnapshot.betsCount == 3
+            auctionSnapshot.version == 4
+            auctionSnapshot.currentAuctionedPrice.amount == 150.00
+            byte[] payload = jdbcTemplate.queryForObject(
+                    "SELECT payload FROM auction_events_outbox WHERE event_type = 'BET_OPERATION_PERFORMED'", byte[])
+            objectMapper.readTree(payload).get('version').intValue() == 4
+        cleanup:
+            cleanUpDatabase()
+    }
+
+    def "should place concurrent bets on one Auction without optimistic lock failures"() {
+        given:
+            List<String> prices = (1..16).collect { "${140 + it}.00".toString() }.tap { Collections.shuffle(it) }
+        when:
+            List<PlaceBetResult> results = prices.collect { price ->
+                CompletableFuture.supplyAsync {
+                    auctions.placeBet(PlaceBetSpecification.builder()
+                            .auctionCode('BBB-ASDF')
+                            .userId(Id.generate())
+                            .price(Money.from(price, PLN))
+                            .build())
+                }
+            }*.join()
+        then:
+            results.every { it.status in [SUCCESS, FAILURE_PRICE_TOO_LOW] }
+            AuctionSnapshot auctionSnapshot = auctions.findOne('BBB-ASDF').get()
+            auctionSnapshot.currentAuctionedPrice.amount == 156.00
+            auctionSnapshot.betsCount == 2 + results.count { it.status == SUCCESS }
+            jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM auction_events_outbox WHERE event_type = 'BET_OPERATION_PERFORMED'", Integer) == 16
+        cleanup:
+            cleanUpDatabase()
+    }
+
+    def "should reject appending Bet when Auction version is stale"() {
+        given:
+            AuctionSnapshot staleSnapshot = transactionTemplate.execute {
+                auctionRepository.findOne(queryForCode('BBB-ASDF')).get()
+            }
+            transactionTemplate.execute {
+                auctionRepository.appendBet(staleSnapshot, givenBetSnapshot('140.00'))
+            }
+        when:
+            transactionTemplate.execute {
+                auctionRepository.appendBet(staleSnapshot, givenBetSnapshot('150.00'))
+            }
+        then:
+            thrown(ObjectOptimisticLockingFailureException)
         cleanup:
             cleanUpDatabase()
     }
+
+    def "should start only Auctions whose start date has passed"() {
+        when:
+            auctions.startEligibleAuctions()
+        then:
+            auctions.findOne('CCC-ZXCV').get().status == Auction.AuctionStatus.STARTED
+            auctions.findOne('DDD-ZXCV').get().status == Auction.AuctionStatus.NOT_STARTED
+        cleanup:
+            cleanUpDatabase()
+    }
+
+    def "should finish only Auctions whose end date has passed"() {
+        when:
+            auctions.finishEligibleAuctions()
+        then:
+            auctions.findOne('EEE-ZXCV').get().status == Auction.AuctionStatus.FINISHED_NOT_SOLD
+            auctions.findOne('BBB-ASDF').get().status == Auction.AuctionStatus.STARTED
+        cleanup:
+            cleanUpDatabase()
+    }
+
+    def "should finish ended Auctions in bulk and publish finished events with the winning Bet"() {
+        given:
+            BetSnapshot winningBet = givenBetSnapshot('75.00')
+            transactionTemplate.execute {
+                AuctionSnapshot auction = auctionRepository.findOne(queryForCode('EEE-ZXCV')).get()
+                auctionRepository.appendBet(auction, winningBet)
+            }
+        when:
+            auctions.finishEligibleAuctions()
+        then:
+            AuctionSnapshot finished = auctions.findOne('EEE-ZXCV').get()
+            finished.status == Auction.AuctionStatus.FINISHED_SOLD
+            finished.version == 3
+        and:
+            List<Map<String, Object>> events = jdbcTemplate.queryForList(
+                    "SELECT auction_code, payload FROM auction_events_outbox WHERE event_type = 'AUCTION_FINISHED'")
+            events*.AUCTION_CODE == ['EEE-ZXCV']
+            def payload = objectMapper.readTree(events[0].PAYLOAD as byte[])
+            payload.get('price').decimalValue() == 75.00
+            payload.get('betId').textValue() == winningBet.id.asString()
+            payload.get('userId').textValue() == winningBet.userId.asString()
+        cleanup:
+            cleanUpDatabase()
+    }
+
+    def "should find all Auctions in keyset chunks"() {
+        given:
+            AuctionRepository.AuctionQuery query = AuctionRepository.AuctionQuery.builder().limit(2).build()
+            List<List<AuctionSnapshot>> chunks = []
+        when:
+            transactionTemplate.execute {
+                List<AuctionSnapshot> chunk = auctionRepository.findAll(query)
+                while (!chunk.isEmpty()) {
+                    chunks << chunk
+                    chunk = auctionRepository.findAll(query = query.nextChunkAfter(chunk.last().id))
+                }
+            }
+        then:
+            chunks*.size() == [2, 2, 1]
+            List<String> ids = chunks.flatten()*.id*.asString()
+            ids == ids.toSorted()
+            ids.toSet().size() == 5
+    }
+
+    def "should page Bet history in placement order with ties broken by id"() {
+        given:
+            OffsetDateTime sameTime = OffsetDateTime.parse('2021-01-26T20:00:00Z')
+            transactionTemplate.execute {
+                AuctionSnapshot auction = auctionRepository.findOne(queryForCode('BBB-ASDF')).get()
+                ['140.00', '150.00', '160.00'].eachWithIndex { price, i ->
+                    auctionRepository.appendBet(auction.toBuilder().version(auction.version + i).build(),
+                            givenBetSnapshot(price, sameTime))
+                }
+            }
+            Id auctionId = auctions.findOne('BBB-ASDF').get().id
+            AuctionRepository.BetHistoryQuery query = AuctionRepository.BetHistoryQuery.firstPage(auctionId, 2)
+            List<List<BetSnapshot>> pages = []
+        when:
+            List<BetSnapshot> page = auctions.findBets(query)
+            while (!page.isEmpty()) {
+                pages << page
+                page = auctions.findBets(query = query.nextPageAfter(page.last()))
+            }
+        then:
+            pages*.size() == [2, 2, 1]
+            List<BetSnapshot> bets = pages.flatten()
+            bets*.price*.amount.take(2) == [110.00, 130.00]
+            bets.drop(2)*.id*.asString() == bets.drop(2)*.id*.asString().toSorted()
+            bets.drop(2)*.creationTime.every { it.isEqual(sameTime) }
+        cleanup:
+            cleanUpDatabase()
+    }
+
+    def "should stream all Auctions matching query"() {
+        given:
+            AuctionRepository.AuctionQuery query = AuctionRepository.AuctionQuery.builder()
+                    .statuses([Auction.AuctionStatus.NOT_STARTED, Auction.AuctionStatus.STARTED])
+                    .build()
+        when:
+            List<String> codes = transactionTemplate.execute {
+                auctionRepository.streamAll(query).withCloseable { it.map { it.code }.collect(Collectors.toList()) }
+            }
+        then:
+            codes.toSorted() == ['BBB-ASDF', 'CCC-ZXCV', 'DDD-ZXCV', 'EEE-ZXCV']
+    }
+
+    private static BetSnapshot givenBetSnapshot(String price, OffsetDateTime creationTime = OffsetDateTime.now()) {
+        return BetSnapshot.builder()
+                .id(Id.generate())
+                .userId(Id.generate())
+                .price(Money.from(price, PLN))
+                .creationTime(creationTime)
+                .build()
+    }
 }
@@ -0,0 +1,81 @@
+package com.gszczepanski.auctionapi.domain.auction
+
+import com.gszczepanski.auctionapi.domain.Time
+import org.springframework.dao.OptimisticLockingFailureException
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.function.Function
+
+import static com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResult
+import static com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResultStatus.FAILURE_PRICE_TOO_LOW
+import static com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResultStatus.SUCCESS
+
+class BetCoalescerSpec extends Specification implements WithAuctionFixtures {
+
+    Time time = Stub()
+
+    AuctionMetrics auctionMetrics = Mock()
+
+    BetCoalescer betCoalescer = new BetCoalescer(3, Duration.ofMillis(1), auctionMetrics)
+
+    def "should place bets queued during a running batch as one batch with the highest bet first"() {
+        given:
+            Auction auction = givenStartedAuctionWithNoBets()
+            time.now() >> auction.getStartDate().plusMinutes(10)
+            List<List<String>> batches = new CopyOnWriteArrayList<>()
+            CountDownLatch firstBatchStarted = new CountDownLatch(1)
+            CountDownLatch releaseFirstBatch = new CountDownLatch(1)
+            Function<List<PlaceBetSpecification>, List<PlaceBetResult>> placer = { List<PlaceBetSpecification> specifications ->
+                batches << specifications*.price*.amount*.toPlainString()
+                if (batches.size() == 1) {
+                    firstBatchStarted.countDown()
+                    releaseFirstBatch.await()
+                }
+                return specifications.collect { auction.placeBet(it, time) }
+            } as Function
+
+        when:
+            CompletableFuture<PlaceBetResult> first = placeAsync(givenPlaceBetSpecification(auction.code, '10'), placer)
+            firstBatchStarted.await()
+            List<CompletableFuture<PlaceBetResult>> queued = ['11', '30', '20'].collect { placeAsync(givenPlaceBetSpecification(auction.code, it), placer) }
+            new PollingConditions(timeout: 5).eventually {
+                assert betCoalescer.auctionBets[auction.code].queued.size() == 3
+            }
+            releaseFirstBatch.countDown()
+
+        then:
+            first.join().status == SUCCESS
+            queued*.join()*.status == [FAILURE_PRICE_TOO_LOW, SUCCESS, FAILURE_PRICE_TOO_LOW]
+            batches == [['10.00'], ['30.00', '20.00', '11.00']]
+            betCoalescer.auctionBets.isEmpty()
+    }
+
+    def "should retry batch on optimistic lock conflict and give up after max attempts"() {
+        given:
+            int attempts = 0
+            Function<List<PlaceBetSpecification>, List<PlaceBetResult>> placer = { List<PlaceBetSpecification> specifications ->
+                attempts++
+                throw new OptimisticLockingFailureException('conflict')
+            } as Function
+
+        when:
+            betCoalescer.placeBet(givenPlaceBetSpecification('XDD-HXG', '20'), placer)
+
+        then:
+            thrown(OptimisticLockingFailureException)
+            attempts == 3
+            3 * auctionMetrics.recordOptimisticLockConflict()
+            betCoalescer.auctionBets.isEmpty()
+    }
+
+    private CompletableFuture<PlaceBetResult> placeAsync(PlaceBetSpecification specification,
+                                                         Function<List<PlaceBetSpecification>, List<PlaceBetResult>> placer) {
+        return CompletableFuture.supplyAsync({ betCoalescer.placeBet(specification, placer) }, { new Thread(it).start() })
+    }
+
+}
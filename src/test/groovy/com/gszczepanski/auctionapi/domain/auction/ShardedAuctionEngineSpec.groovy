@@ -0,0 +1,153 @@
+package com.gszczepanski.auctionapi.domain.auction
+
+import com.gszczepanski.auctionapi.domain.Money
+import com.gszczepanski.auctionapi.domain.Time
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot.BetSnapshot
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.ConcurrentLinkedQueue
+
+import static com.gszczepanski.auctionapi.domain.Money.Currency.PLN
+import static com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResult
+import static com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResultStatus.FAILURE_AUCTION_NOT_STARTED
+import static com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResultStatus.FAILURE_PRICE_TOO_LOW
+import static com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResultStatus.SUCCESS
+
+class ShardedAuctionEngineSpec extends Specification implements WithAuctionFixtures {
+
+    AuctionRepository auctionRepository = Mock()
+
+    Queue<BetSnapshot> writtenBets = new ConcurrentLinkedQueue<>()
+
+    Queue<PlaceBetResult> writtenResults = new ConcurrentLinkedQueue<>()
+
+    boolean writerFailing
+
+    Queue<String> writerCalls = new ConcurrentLinkedQueue<>()
+
+    AcceptedBetWriter acceptedBetWriter = [
+            write: { AuctionSnapshot auction, PlaceBetResult result ->
+                if (writerFailing) {
+                    throw new IllegalStateException('writer is failing to persist accepted bets')
+                }
+                writtenResults.add(result)
+                writerCalls.add('write')
+                result.betSnapshot.ifPresent { writtenBets.add(it) }
+                return CompletableFuture.completedFuture(null)
+            },
+            flush: { ->
+                writerCalls.add('flush')
+                return CompletableFuture.completedFuture(null)
+            }
+    ] as AcceptedBetWriter
+
+    Time time = Stub()
+
+    AuctionMetrics auctionMetrics = Mock()
+
+    ShardedAuctionEngine engine = new ShardedAuctionEngine(auctionRepository, acceptedBetWriter, time, auctionMetrics, 4)
+
+    def cleanup() {
+        engine.shutdown()
+    }
+
+    def "should keep started Auction in memory and place consecutive bets against it"() {
+        given:
+            Auction auction = givenStartedAuctionWithBets()
+            time.now() >> auction.getStartDate().plusMinutes(10)
+
+        when:
+            PlaceBetResult firstResult = engine.placeBet(givenPlaceBetSpecification(auction.code, '20')).join()
+            PlaceBetResult secondResult = engine.placeBet(givenPlaceBetSpecification(auction.code, '19')).join()
+
+        then:
+            1 * auctionRepository.findOne(_) >> Optional.of(auction.asSnapshot())
+            firstResult.status == SUCCESS
+            secondResult.status == FAILURE_PRICE_TOO_LOW
+            writtenBets*.price == [Money.from('20', PLN)]
+            writtenResults*.status == [SUCCESS, FAILURE_PRICE_TOO_LOW]
+            1 * auctionMetrics.recordBetPlaced(SUCCESS, _)
+            1 * auctionMetrics.recordBetPlaced(FAILURE_PRICE_TOO_LOW, _)
+    }
+
+    def "should reload Auction from the database when the writer fails to take its bet"() {
+        given:
+            Auction auction = givenStartedAuctionWithBets()
+            time.now() >> auction.getStartDate().plusMinutes(10)
+            writerFailing = true
+
+        when:
+            engine.placeBet(givenPlaceBetSpecification(auction.code, '20')).join()
+
+        then:
+            1 * auctionRepository.findOne(_) >> Optional.of(auction.asSnapshot())
+            thrown(CompletionException)
+
+        when:
+            writerFailing = false
+            PlaceBetResult result = engine.placeBet(givenPlaceBetSpecification(auction.code, '20')).join()
+
+        then:
+            1 * auctionRepository.findOne(_) >> Optional.of(auction.asSnapshot())
+            result.status == SUCCESS
+            writtenBets*.price == [Money.from('20', PLN)]
+    }
+
+    def "should not keep Auction in memory when it is not started"() {
+        given:
+            Auction auction = givenNotStartedAuction()
+            time.now() >> auction.getStartDate().minusMinutes(10)
+
+        when:
+            PlaceBetResult firstResult = engine.placeBet(givenPlaceBetSpecification(auction.code, '20')).join()
+            PlaceBetResult secondResult = engine.placeBet(givenPlaceBetSpecification(auction.code, '20')).join()
+
+        then:
+            2 * auctionRepository.findOne(_) >> Optional.of(auction.asSnapshot())
+            firstResult.status == FAILURE_AUCTION_NOT_STARTED
+            secondResult.status == FAILURE_AUCTION_NOT_STARTED
+            writtenBets.isEmpty()
+    }
+
+    def "should serialize concurrent bets placed on the same Auction"() {
+        given:
+            Auction auction = givenStartedAuctionWithNoBets()
+            time.now() >> auction.getStartDate().plusMinutes(10)
+            auctionRepository.findOne(_) >> Optional.of(auction.asSnapshot())
+
+        when:
+            List<CompletableFuture<PlaceBetResult>> results = (1..200).collect { price ->
+                CompletableFuture.supplyAsync {
+                    engine.placeBet(givenPlaceBetSpecification(auction.code, "${price + 10}")).join()
+                }
+            }
+            results*.join()
+
+        then:
+            List<BigDecimal> acceptedPrices = writtenBets*.price*.amount
+            acceptedPrices == acceptedPrices.toSorted()
+            acceptedPrices.toSet().size() == acceptedPrices.size()
+            acceptedPrices.last() == 210
+    }
+
+    def "should flush the writer once bets submitted so far are applied on their shards"() {
+        given:
+            Auction auction = givenStartedAuctionWithNoBets()
+            time.now() >> auction.getStartDate().plusMinutes(10)
+            auctionRepository.findOne(_) >> Optional.of(auction.asSnapshot())
+            List<CompletableFuture<PlaceBetResult>> results = (1..50).collect { price ->
+                engine.placeBet(givenPlaceBetSpecification(auction.code, "${price + 10}"))
+            }
+
+        when:
+            engine.awaitPlacedBetsWritten()
+
+        then:
+            results.every { it.isDone() }
+            writerCalls.size() == 51
+            writerCalls.last() == 'flush'
+    }
+
+}
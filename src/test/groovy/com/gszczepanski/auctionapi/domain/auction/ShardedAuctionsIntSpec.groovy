@@ -0,0 +1,62 @@
+package com.gszczepanski.auctionapi.domain.auction
+
+import com.gszczepanski.auctionapi.IntegrationBaseSpec
+import com.gszczepanski.auctionapi.domain.Id
+import com.gszczepanski.auctionapi.domain.Money
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.test.context.TestPropertySource
+
+import static com.gszczepanski.auctionapi.domain.Money.Currency.PLN
+import static com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResult
+import static com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResultStatus.FAILURE_PRICE_TOO_LOW
+import static com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResultStatus.SUCCESS
+
+@TestPropertySource(properties = 'auction.engine.mode=sharded')
+class ShardedAuctionsIntSpec extends IntegrationBaseSpec {
+
+    @Autowired
+    Auctions auctions
+
+    @Autowired
+    ShardedAuctionEngine shardedAuctionEngine
+
+    @Autowired
+    JdbcTemplate jdbcTemplate
+
+    def "should place bets on the sharded engine and write them behind"() {
+        when:
+            List<PlaceBetResult> results = ['140.00', '135.00', '150.00'].collect { placeBet('BBB-ASDF', it) }
+            shardedAuctionEngine.awaitPlacedBetsWritten()
+
+        then:
+            results*.status == [SUCCESS, FAILURE_PRICE_TOO_LOW, SUCCESS]
+            AuctionSnapshot auction = auctions.findOne('BBB-ASDF').get()
+            auction.topBet.get().price == Money.from('150.00', PLN)
+            auction.betsCount == 4
+            auction.version == 5
+            jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM auction_events_outbox WHERE auction_code = 'BBB-ASDF' AND event_type = 'BET_OPERATION_PERFORMED'",
+                    Integer
+            ) == 3
+        cleanup:
+            cleanUpDatabase()
+    }
+
+    def "should reject a bet on an unknown Auction"() {
+        when:
+            placeBet('XXX-NONE', '140.00')
+
+        then:
+            thrown(IllegalArgumentException)
+    }
+
+    private PlaceBetResult placeBet(String auctionCode, String price) {
+        return auctions.placeBet(PlaceBetSpecification.builder()
+                .auctionCode(auctionCode)
+                .userId(Id.generate())
+                .price(Money.from(price, PLN))
+                .build())
+    }
+
+}
@@ -5,6 +5,7 @@ import com.gszczepanski.auctionapi.domain.Money
 
 import java.time.OffsetDateTime
 import java.time.ZoneOffset
+import java.time.temporal.ChronoUnit
 
 import static com.gszczepanski.auctionapi.domain.Money.Currency.*
 import static com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot.*
@@ -28,7 +29,6 @@ trait WithAuctionFixtures {
                         .minimalPrice(Money.from("10.00", PLN))
                         .startDate(givenDateTime(01, 18))
                         .endDate(givenDateTime(02, 18))
-                        .bets([])
                         .version(1)
                         .status(Auction.AuctionStatus.NOT_STARTED)
                         .creationTime(givenDateTime(01, 17))
@@ -44,7 +44,6 @@ trait WithAuctionFixtures {
                         .minimalPrice(Money.from("10.00", PLN))
                         .startDate(givenDateTime(01, 18))
                         .endDate(givenDateTime(02, 18))
-                        .bets([])
                         .version(1)
                         .status(Auction.AuctionStatus.STARTED)
                         .creationTime(givenDateTime(01, 17))
@@ -60,11 +59,8 @@ trait WithAuctionFixtures {
                         .minimalPrice(Money.from("10.00", PLN))
                         .startDate(givenDateTime(01, 18))
                         .endDate(givenDateTime(02, 18))
-                        .bets([
-                                givenBetSnapshot(Id.generate(), '10', givenDateTime(01, 19, 10)),
-                                givenBetSnapshot(Id.generate(), '11', givenDateTime(01, 19, 50)),
-                                givenBetSnapshot(Id.generate(), '15', givenDateTime(01, 22, 30))
-                        ])
+                        .topBet(givenBetSnapshot(Id.generate(), '15', givenDateTime(01, 22, 30)))
+                        .betsCount(3)
                         .version(1)
                         .status(Auction.AuctionStatus.STARTED)
                         .creationTime(givenDateTime(01, 17))
@@ -81,6 +77,18 @@ trait WithAuctionFixtures {
                 .build()
     }
 
+    BetSnapshot givenBetSnapshot(int price) {
+        return givenBetSnapshot(Id.generate(), price.toString(), OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MILLIS))
+    }
+
+    PlaceBetSpecification givenPlaceBetSpecification(String auctionCode, String price) {
+        return PlaceBetSpecification.builder()
+                .auctionCode(auctionCode)
+                .userId(Id.generate())
+                .price(Money.from(price, PLN))
+                .build()
+    }
+
     Auction givenFinishedAuctionWithNoBets() {
         return Auction.restoreFrom(
                 builder()
@@ -89,7 +97,6 @@ trait WithAuctionFixtures {
                         .minimalPrice(Money.from("10.00", PLN))
                         .startDate(givenDateTime(01, 18))
                         .endDate(givenDateTime(02, 18))
-                        .bets([])
                         .version(2)
                         .status(Auction.AuctionStatus.FINISHED_NOT_SOLD)
                         .creationTime(givenDateTime(01, 17))
@@ -0,0 +1,102 @@
+package com.gszczepanski.auctionapi.infrastructure.cache
+
+import com.gszczepanski.auctionapi.IntegrationBaseSpec
+import com.gszczepanski.auctionapi.domain.Id
+import com.gszczepanski.auctionapi.domain.Money
+import com.gszczepanski.auctionapi.domain.auction.Auction
+import com.gszczepanski.auctionapi.domain.auction.AuctionRepository
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot
+import com.gszczepanski.auctionapi.domain.auction.Auctions
+import com.gszczepanski.auctionapi.domain.auction.PlaceBetSpecification
+import io.micrometer.core.instrument.MeterRegistry
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.beans.factory.annotation.Qualifier
+import org.springframework.dao.OptimisticLockingFailureException
+import org.springframework.transaction.support.TransactionTemplate
+
+import static com.gszczepanski.auctionapi.domain.Money.Currency.PLN
+import static com.gszczepanski.auctionapi.domain.auction.AuctionRepository.AuctionQuery.queryForCode
+
+class CachingAuctionRepositoryIntSpec extends IntegrationBaseSpec {
+
+    @Autowired
+    Auctions auctions
+
+    @Autowired
+    AuctionRepository auctionRepository
+
+    @Autowired
+    @Qualifier('auctionJpaRepository')
+    AuctionRepository databaseRepository
+
+    @Autowired
+    TransactionTemplate transactionTemplate
+
+    @Autowired
+    MeterRegistry meterRegistry
+
+    def "should serve repeated reads of an Auction from cache"() {
+        given:
+            double hitsBefore = cacheGets('hit')
+            double missesBefore = cacheGets('miss')
+        when:
+            3.times { auctions.findOne('BBB-ASDF') }
+        then:
+            cacheGets('miss') - missesBefore == 1
+            cacheGets('hit') - hitsBefore == 2
+        cleanup:
+            cleanUpDatabase()
+    }
+
+    def "should update cached Auction in place when bet is placed"() {
+        given:
+            auctions.findOne('BBB-ASDF')
+        when:
+            auctions.placeBet(PlaceBetSpecification.builder()
+                    .auctionCode('BBB-ASDF')
+                    .userId(Id.generate())
+                    .price(Money.from('150.00', PLN))
+                    .build())
+            double missesBefore = cacheGets('miss')
+            AuctionSnapshot cached = auctions.findOne('BBB-ASDF').get()
+        then:
+            cacheGets('miss') == missesBefore
+            AuctionSnapshot stored = transactionTemplate.execute { databaseRepository.findOne(queryForCode('BBB-ASDF')).get() }
+            cached.version == stored.version
+            cached.betsCount == stored.betsCount
+            cached.currentAuctionedPrice.amount == 150.00
+            cached.topBet.get().id == stored.topBet.get().id
+        cleanup:
+            cleanUpDatabase()
+    }
+
+    def "should evict cached Auction when write based on it conflicts"() {
+        given:
+            AuctionSnapshot cached = auctions.findOne('BBB-ASDF').get()
+            transactionTemplate.execute { databaseRepository.saveHeader(cached) }
+        when:
+            transactionTemplate.execute { auctionRepository.saveHeader(cached) }
+        then:
+            thrown(OptimisticLockingFailureException)
+            auctions.findOne('BBB-ASDF').get().version == cached.version + 1
+        cleanup:
+            cleanUpDatabase()
+    }
+
+    def "should evict cached Auction when it is finished by lifecycle sweep"() {
+        given:
+            auctions.findOne('EEE-ZXCV')
+        when:
+            auctions.finishEligibleAuctions()
+        then:
+            auctions.findOne('EEE-ZXCV').get().status == Auction.AuctionStatus.FINISHED_NOT_SOLD
+        cleanup:
+            cleanUpDatabase()
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get('cache.gets').tags('cache', CachingAuctionRepository.CACHE_NAME, 'result', result)
+                .functionCounter().count()
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.gszczepanski.auctionapi.infrastructure.codec
+
+import com.gszczepanski.auctionapi.domain.Id
+import com.gszczepanski.auctionapi.domain.Money
+import com.gszczepanski.auctionapi.domain.auction.Auction.AuctionStatus
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot.BetSnapshot
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.ByteBuffer
+import java.time.OffsetDateTime
+import java.time.ZoneOffset
+
+import static com.gszczepanski.auctionapi.domain.Money.Currency.PLN
+
+class SnapshotCodecSpec extends Specification {
+
+    static final OffsetDateTime NOW = OffsetDateTime.of(2021, 3, 1, 12, 30, 15, 123_000_000, ZoneOffset.UTC)
+
+    SnapshotCodec codec = new SnapshotCodec()
+
+    ByteBuffer buffer = ByteBuffer.allocate(256)
+
+    @Unroll
+    def "should round trip Auction snapshot #description"() {
+        when:
+            codec.encode(auction, buffer)
+            buffer.flip()
+        then:
+            codec.decodeAuction(buffer) == auction
+            !buffer.hasRemaining()
+        where:
+            description                       | auction
+            'with top bet and current price'  | givenAuction().build()
+            'without bets'                    | givenAuction().topBet(null).betsCount(0).currentAuctionedPrice(Money.zero(PLN)).build()
+            'without current price'           | givenAuction().currentAuctionedPrice(null).build()
+            'with a non ASCII code'           | givenAuction().code('ŻÓŁ-ĆWIR').build()
+            'with extreme counts and amounts' | givenAuction().betsCount(Integer.MAX_VALUE).version(Integer.MAX_VALUE)
+                .minimalPrice(Money.ofMinorUnits(Long.MAX_VALUE, PLN)).currentAuctionedPrice(Money.ofMinorUnits(-1, PLN)).build()
+    }
+
+    def "should round trip Bet snapshot within the declared maximum size"() {
+        given:
+            BetSnapshot bet = givenBet(Money.ofMinorUnits(Long.MIN_VALUE, PLN))
+        when:
+            codec.encode(bet, buffer)
+            buffer.flip()
+        then:
+            buffer.remaining() <= SnapshotCodec.MAX_BET_BYTES
+            codec.decodeBet(buffer) == bet
+    }
+
+    def "should encode consecutive snapshots into one reused buffer"() {
+        given:
+            List<BetSnapshot> bets = (1..5).collect { givenBet(Money.from("${it}0.00", PLN)) }
+        when:
+            bets.each { codec.encode(it, buffer) }
+            buffer.flip()
+        then:
+            (1..5).collect { codec.decodeBet(buffer) } == bets
+    }
+
+    def "should keep time to the millisecond in UTC"() {
+        given:
+            OffsetDateTime creationTime = OffsetDateTime.of(2021, 3, 1, 14, 30, 15, 123_456_789, ZoneOffset.ofHours(2))
+        when:
+            codec.encode(BetSnapshot.builder().id(Id.generate()).userId(Id.generate()).price(Money.from('1', PLN)).creationTime(creationTime).build(), buffer)
+            buffer.flip()
+        then:
+            codec.decodeBet(buffer).creationTime == OffsetDateTime.of(2021, 3, 1, 12, 30, 15, 123_000_000, ZoneOffset.UTC)
+    }
+
+    def "should reject an unknown version"() {
+        given:
+            codec.encode(givenBet(Money.from('1', PLN)), buffer)
+            buffer.put(0, (byte) 2)
+            buffer.flip()
+        when:
+            codec.decodeBet(buffer)
+        then:
+            IllegalArgumentException exception = thrown()
+            exception.message == 'Unsupported snapshot codec version 2'
+    }
+
+    private static AuctionSnapshot.AuctionSnapshotBuilder givenAuction() {
+        return AuctionSnapshot.builder()
+                .id(Id.generate())
+                .code('BBB-ASDF')
+                .status(AuctionStatus.STARTED)
+                .version(3)
+                .minimalPrice(Money.from('100.00', PLN))
+                .currentAuctionedPrice(Money.from('130.00', PLN))
+                .startDate(NOW.minusDays(1))
+                .endDate(NOW.plusDays(1))
+                .creationTime(NOW.minusDays(2))
+                .topBet(givenBet(Money.from('130.00', PLN)))
+                .betsCount(2)
+    }
+
+    private static BetSnapshot givenBet(Money price) {
+        return BetSnapshot.builder()
+                .id(Id.generate())
+                .userId(Id.generate())
+                .price(price)
+                .creationTime(NOW)
+                .build()
+    }
+
+}
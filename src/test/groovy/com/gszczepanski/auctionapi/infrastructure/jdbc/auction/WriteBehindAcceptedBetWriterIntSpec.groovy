@@ -0,0 +1,214 @@
+package com.gszczepanski.auctionapi.infrastructure.jdbc.auction
+
+import com.gszczepanski.auctionapi.IntegrationBaseSpec
+import com.gszczepanski.auctionapi.domain.Id
+import com.gszczepanski.auctionapi.domain.Money
+import com.gszczepanski.auctionapi.domain.Time
+import com.gszczepanski.auctionapi.domain.auction.Auction
+import com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResult
+import com.gszczepanski.auctionapi.domain.auction.AuctionEventPublisher
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot.BetSnapshot
+import com.gszczepanski.auctionapi.domain.auction.WithAuctionFixtures
+import com.gszczepanski.auctionapi.infrastructure.codec.SnapshotCodec
+import com.gszczepanski.auctionapi.infrastructure.journal.BetJournal
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.dao.QueryTimeoutException
+import org.springframework.jdbc.core.BatchPreparedStatementSetter
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.jdbc.core.RowMapper
+import org.springframework.transaction.support.TransactionTemplate
+import org.springframework.util.unit.DataSize
+import spock.util.concurrent.PollingConditions
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.time.Duration
+import java.util.concurrent.atomic.AtomicInteger
+import javax.sql.DataSource
+
+import static com.gszczepanski.auctionapi.domain.Money.Currency.PLN
+import static com.gszczepanski.auctionapi.domain.auction.Auction.AuctionStatus.STARTED
+import static com.gszczepanski.auctionapi.domain.auction.Auction.PlaceBetResultStatus.FAILURE_PRICE_TOO_LOW
+
+class WriteBehindAcceptedBetWriterIntSpec extends IntegrationBaseSpec implements WithAuctionFixtures {
+
+    static final Id AUCTION_ID = Id.from('3c7a4b1e-8d52-4f0a-9e6b-2a1d5c9f7e40')
+
+    @Autowired
+    JdbcTemplate jdbcTemplate
+
+    @Autowired
+    TransactionTemplate transactionTemplate
+
+    @Autowired
+    DataSource dataSource
+
+    @Autowired
+    AuctionEventPublisher auctionEventPublisher
+
+    @Autowired
+    Time time
+
+    def "should write accepted bets behind in batches and drain them in order on stop"() {
+        given:
+            WriteBehindAcceptedBetWriter writer = givenWriter(Optional.empty())
+            Auction auction = givenFixtureAuction()
+            List<PlaceBetResult> results = (1..100).collect { placeBet(auction, 200 + it) }
+
+        when:
+            results.each { writer.write(auction.asSnapshot(), it) }
+            writer.stop()
+
+        then:
+            findPersistedIds() == results*.betSnapshot*.get()*.id
+            jdbcTemplate.queryForObject("SELECT version FROM auctions WHERE id = ?", Integer, [AUCTION_ID.asBytes()] as Object[]) > 3
+        cleanup:
+            cleanUpDatabase()
+    }
+
+    def "should publish bet operation events, rejected bids included, with the batches that write their bets"() {
+        given:
+            WriteBehindAcceptedBetWriter writer = givenWriter(Optional.empty())
+            Auction auction = givenFixtureAuction()
+            List<PlaceBetResult> results = [placeBet(auction, 201), placeBet(auction, 150), placeBet(auction, 202)]
+
+        when:
+            results.each { writer.write(auction.asSnapshot(), it) }
+            writer.flush().join()
+
+        then:
+            findPersistedIds() == [results[0], results[2]]*.betSnapshot*.get()*.id
+            jdbcTemplate.queryForList(
+                    "SELECT payload FROM auction_events_outbox WHERE auction_code = 'BBB-ASDF' AND event_type = 'BET_OPERATION_PERFORMED' ORDER BY id",
+                    byte[].class
+            ).collect { objectMapper.readTree(it).get('betResult').asText() } == ['SUCCESS', FAILURE_PRICE_TOO_LOW.name(), 'SUCCESS']
+        cleanup:
+            writer.stop()
+            cleanUpDatabase()
+    }
+
+    def "should write bets recovered from the journal on start, skipping the already written ones"() {
+        given:
+            Path directory = Files.createTempDirectory('bet-journal')
+            BetJournal journal = givenJournal(directory)
+            Auction auction = givenFixtureAuction()
+            List<PlaceBetResult> results = (1..10).collect { placeBet(auction, 200 + it) }
+            List<BetSnapshot> bets = results*.betSnapshot*.get()
+            bets.each { journal.append(AUCTION_ID, it) }
+            journal.close()
+            WriteBehindAcceptedBetWriter previousWriter = givenWriter(Optional.empty())
+            results.take(4).each { previousWriter.write(auction.asSnapshot(), it) }
+            previousWriter.stop()
+
+        when:
+            BetJournal reopened = givenJournal(directory)
+            WriteBehindAcceptedBetWriter writer = givenWriter(Optional.of(reopened))
+            writer.start()
+            writer.stop()
+            reopened.close()
+
+        then:
+            findPersistedIds() == bets*.id
+            Files.list(directory).withCloseable { it.count() } == 0
+        cleanup:
+            directory?.toFile()?.deleteDir()
+            cleanUpDatabase()
+    }
+
+    def "should retry a failed batch and reject new bets until it is written"() {
+        given:
+            JdbcTemplate failingTwice = new FailingJdbcTemplate(dataSource, 2)
+            WriteBehindAcceptedBetWriter writer = new WriteBehindAcceptedBetWriter(
+                    failingTwice, transactionTemplate, auctionEventPublisher, 16, 8, Duration.ZERO, Duration.ofMillis(500), Duration.ofSeconds(1), Optional.empty()
+            )
+            writer.start()
+            Auction auction = givenFixtureAuction()
+            PlaceBetResult first = placeBet(auction, 201)
+            PlaceBetResult second = placeBet(auction, 202)
+            PollingConditions conditions = new PollingConditions(timeout: 5)
+
+        when:
+            writer.write(auction.asSnapshot(), first)
+            conditions.eventually {
+                assert writer.failing
+            }
+            writer.write(auction.asSnapshot(), second)
+
+        then:
+            thrown(IllegalStateException)
+            conditions.eventually {
+                assert findPersistedIds() == [first.betSnapshot.get().id]
+            }
+
+        when:
+            writer.write(auction.asSnapshot(), second)
+            writer.stop()
+
+        then:
+            findPersistedIds() == [first, second]*.betSnapshot*.get()*.id
+        cleanup:
+            cleanUpDatabase()
+    }
+
+    private WriteBehindAcceptedBetWriter givenWriter(Optional<BetJournal> journal) {
+        WriteBehindAcceptedBetWriter writer = new WriteBehindAcceptedBetWriter(
+                jdbcTemplate, transactionTemplate, auctionEventPublisher, 16, 8, Duration.ofMillis(50), Duration.ofMillis(50), Duration.ofSeconds(1), journal
+        )
+        if (journal.isEmpty()) {
+            writer.start()
+        }
+        return writer
+    }
+
+    private Auction givenFixtureAuction() {
+        return Auction.restoreFrom(
+                AuctionSnapshot.builder()
+                        .id(AUCTION_ID)
+                        .code('BBB-ASDF')
+                        .minimalPrice(Money.from('100.00', PLN))
+                        .startDate(time.now().minusDays(1))
+                        .endDate(time.now().plusDays(1))
+                        .status(STARTED)
+                        .version(3)
+                        .creationTime(time.now().minusDays(2))
+                        .build()
+        )
+    }
+
+    private PlaceBetResult placeBet(Auction auction, int price) {
+        return auction.placeBet(givenPlaceBetSpecification('BBB-ASDF', price.toString()), time)
+    }
+
+    private static BetJournal givenJournal(Path directory) {
+        return new BetJournal(new SnapshotCodec(), directory, DataSize.ofKilobytes(64), Duration.ofMillis(1), DataSize.ofKilobytes(4))
+    }
+
+    private List<Id> findPersistedIds() {
+        return jdbcTemplate.query(
+                "SELECT id FROM bets WHERE auction_id = ? AND price_amount > 200 ORDER BY price_amount",
+                { resultSet, rowNum -> Id.fromBytes(resultSet.getBytes('id')) } as RowMapper<Id>,
+                [AUCTION_ID.asBytes()] as Object[]
+        )
+    }
+
+    private static class FailingJdbcTemplate extends JdbcTemplate {
+
+        private final AtomicInteger remainingFailures
+
+        FailingJdbcTemplate(DataSource dataSource, int failures) {
+            super(dataSource)
+            this.remainingFailures = new AtomicInteger(failures)
+        }
+
+        @Override
+        int[] batchUpdate(String sql, BatchPreparedStatementSetter setter) {
+            if (remainingFailures.getAndDecrement() > 0) {
+                throw new QueryTimeoutException('simulated timeout')
+            }
+            return super.batchUpdate(sql, setter)
+        }
+
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.gszczepanski.auctionapi.infrastructure.journal
+
+import com.gszczepanski.auctionapi.domain.Id
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot.BetSnapshot
+import com.gszczepanski.auctionapi.domain.auction.WithAuctionFixtures
+import com.gszczepanski.auctionapi.infrastructure.codec.SnapshotCodec
+import com.gszczepanski.auctionapi.infrastructure.journal.BetJournal.Appended
+import org.springframework.util.unit.DataSize
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.time.Duration
+import java.util.concurrent.TimeUnit
+
+class BetJournalSpec extends Specification implements WithAuctionFixtures {
+
+    static final Id AUCTION_ID = Id.generate()
+
+    Path directory = Files.createTempDirectory('bet-journal')
+
+    def cleanup() {
+        directory.toFile().deleteDir()
+    }
+
+    def "should complete appends once they are forced"() {
+        given:
+            BetJournal journal = givenJournal()
+        when:
+            List<Appended> appended = (1..10).collect { journal.append(AUCTION_ID, givenBetSnapshot(it)) }
+        then:
+            appended.each { it.forced.get(5, TimeUnit.SECONDS) }
+        cleanup:
+            journal?.close()
+    }
+
+    def "should recover records which were not flushed from the previous run"() {
+        given:
+            BetJournal journal = givenJournal()
+            List<BetSnapshot> bets = (1..20).collect { givenBetSnapshot(it) }
+            List<Appended> appended = bets.collect { journal.append(AUCTION_ID, it) }
+            appended.take(5).each { journal.flushed(it.segment) }
+            journal.close()
+        when:
+            BetJournal reopened = givenJournal()
+        then:
+            reopened.recoveredRecords()*.bet == bets
+            reopened.recoveredRecords().every { it.auctionId == AUCTION_ID }
+        cleanup:
+            reopened?.close()
+    }
+
+    def "should roll over to new segments and delete full segments once all their records are flushed"() {
+        given:
+            BetJournal journal = givenJournal(DataSize.ofBytes(512))
+        when:
+            List<Appended> appended = (1..20).collect { journal.append(AUCTION_ID, givenBetSnapshot(it)) }
+        then:
+            appended*.segment.unique().size() > 2
+            segmentFiles().size() == appended*.segment.unique().size()
+        when:
+            appended.each { journal.flushed(it.segment) }
+        then:
+            segmentFiles().size() == 1
+        when:
+            journal.close()
+        then:
+            segmentFiles().isEmpty()
+    }
+
+    def "should stop recovering a segment at a torn record"() {
+        given:
+            BetJournal journal = givenJournal()
+            List<BetSnapshot> bets = (1..3).collect { givenBetSnapshot(it) }
+            bets.each { journal.append(AUCTION_ID, it) }
+            journal.close()
+            Path segment = segmentFiles().first()
+            byte[] content = Files.readAllBytes(segment)
+            int thirdRecordPayload = 2 * recordBytes(content) + 2 * Integer.BYTES
+            content[thirdRecordPayload] = (byte) (content[thirdRecordPayload] + 1)
+            Files.write(segment, content)
+        when:
+            BetJournal reopened = givenJournal()
+        then:
+            reopened.recoveredRecords()*.bet == bets.take(2)
+        cleanup:
+            reopened?.close()
+    }
+
+    private BetJournal givenJournal(DataSize segmentSize = DataSize.ofKilobytes(64)) {
+        return new BetJournal(new SnapshotCodec(), directory, segmentSize, Duration.ofMillis(1), DataSize.ofKilobytes(4))
+    }
+
+    private List<Path> segmentFiles() {
+        return Files.list(directory).withCloseable { it.sorted().collect() }
+    }
+
+    private static int recordBytes(byte[] content) {
+        return 2 * Integer.BYTES + (((content[0] & 0xFF) << 24) | ((content[1] & 0xFF) << 16) | ((content[2] & 0xFF) << 8) | (content[3] & 0xFF))
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.gszczepanski.auctionapi.infrastructure.jpa.auction
+
+import com.gszczepanski.auctionapi.IntegrationBaseSpec
+import com.gszczepanski.auctionapi.domain.auction.Auction.AuctionStatus
+import com.gszczepanski.auctionapi.domain.auction.AuctionRepository.AuctionQuery
+import com.gszczepanski.auctionapi.domain.auction.AuctionRepository.BetHistoryQuery
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot.BetSnapshot
+import org.hibernate.SessionFactory
+import org.hibernate.stat.Statistics
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.transaction.support.TransactionTemplate
+
+import javax.persistence.EntityManagerFactory
+import java.time.OffsetDateTime
+import java.util.stream.Collectors
+
+import static com.gszczepanski.auctionapi.domain.auction.AuctionRepository.AuctionQuery.queryForCode
+
+class AuctionJpaRepositoryQueryCountIntSpec extends IntegrationBaseSpec {
+
+    @Autowired
+    AuctionJpaRepository auctionRepository
+
+    @Autowired
+    TransactionTemplate transactionTemplate
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory
+
+    Statistics statistics
+
+    def setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory).statistics
+        statistics.statisticsEnabled = true
+        statistics.clear()
+    }
+
+    def cleanup() {
+        statistics.statisticsEnabled = false
+    }
+
+    def "should load Auction header with its bets count and top Bet in two queries"() {
+        when:
+            AuctionSnapshot auction = transactionTemplate.execute { auctionRepository.findOne(queryForCode('BBB-ASDF')).get() }
+        then:
+            auction.topBet.get().price.amount == 130.00
+            auction.betsCount == 2
+            statistics.prepareStatementCount == 2
+    }
+
+    def "should load top Bets of all Auctions in one extra query"() {
+        when:
+            List<AuctionSnapshot> auctions = transactionTemplate.execute { auctionRepository.findAll(AuctionQuery.builder().build()) }
+        then:
+            auctions.size() == 5
+            auctions.sum { it.betsCount } == 3
+            auctions.findAll { it.topBet.isPresent() }*.topBet*.get()*.price*.amount.toSorted() == [130.00, 170.00]
+            statistics.prepareStatementCount == 2
+    }
+
+    def "should load a page of Bet history in a single query"() {
+        given:
+            AuctionSnapshot auction = transactionTemplate.execute { auctionRepository.findOne(queryForCode('BBB-ASDF')).get() }
+            statistics.clear()
+        when:
+            List<BetSnapshot> bets = transactionTemplate.execute {
+                auctionRepository.findBets(BetHistoryQuery.firstPage(auction.id, 1).nextPageAfter(auction.topBet.get()))
+            }
+        then:
+            bets.isEmpty()
+            statistics.prepareStatementCount == 1
+    }
+
+    def "should stream Auction headers without loading Bets"() {
+        when:
+            List<AuctionSnapshot> auctions = transactionTemplate.execute {
+                auctionRepository.streamAll(AuctionQuery.builder().build()).withCloseable { it.collect(Collectors.toList()) }
+            }
+        then:
+            auctions.size() == 5
+            auctions.every { it.topBet.isEmpty() }
+            statistics.prepareStatementCount == 1
+    }
+
+    def "should start eligible Auctions with a fixed number of queries"() {
+        when:
+            List<AuctionSnapshot> started = transactionTemplate.execute { auctionRepository.startEligible(OffsetDateTime.now(), 500) }
+        then:
+            started*.code == ['CCC-ZXCV']
+            started*.status == [AuctionStatus.STARTED]
+            statistics.prepareStatementCount == 3
+        cleanup:
+            cleanUpDatabase()
+    }
+
+}
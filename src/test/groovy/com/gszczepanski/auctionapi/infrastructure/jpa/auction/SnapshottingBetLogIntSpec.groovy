@@ -0,0 +1,103 @@
+package com.gszczepanski.auctionapi.infrastructure.jpa.auction
+
+import com.gszczepanski.auctionapi.IntegrationBaseSpec
+import com.gszczepanski.auctionapi.domain.Id
+import com.gszczepanski.auctionapi.domain.Money
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot
+import com.gszczepanski.auctionapi.domain.auction.Auctions
+import com.gszczepanski.auctionapi.domain.auction.PlaceBetSpecification
+import org.hibernate.SessionFactory
+import org.hibernate.stat.Statistics
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.test.context.TestPropertySource
+import org.springframework.transaction.support.TransactionTemplate
+
+import javax.persistence.EntityManagerFactory
+
+import static com.gszczepanski.auctionapi.domain.Money.Currency.PLN
+import static com.gszczepanski.auctionapi.domain.auction.AuctionRepository.AuctionQuery.queryForCode
+
+@TestPropertySource(properties = [
+        'auction.storage.mode=event-sourced',
+        'auction.storage.snapshot-interval=3'
+])
+class SnapshottingBetLogIntSpec extends IntegrationBaseSpec {
+
+    @Autowired
+    Auctions auctions
+
+    @Autowired
+    AuctionJpaRepository auctionRepository
+
+    @Autowired
+    TransactionTemplate transactionTemplate
+
+    @Autowired
+    JdbcTemplate jdbcTemplate
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory
+
+    def "should replay the whole bet log of an Auction without a snapshot"() {
+        when:
+            AuctionSnapshot auction = transactionTemplate.execute { auctionRepository.findOne(queryForCode('BBB-ASDF')).get() }
+        then:
+            auction.topBet.get().price.amount == 130.00
+            auction.betsCount == 2
+    }
+
+    def "should snapshot every interval of appended Bets and replay only the Bets placed after the snapshot"() {
+        given:
+            ['140.00', '150.00', '160.00'].each { price -> placeBet('BBB-ASDF', price) }
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory).statistics
+            statistics.statisticsEnabled = true
+            statistics.clear()
+        when:
+            AuctionSnapshot auction = transactionTemplate.execute { auctionRepository.findOne(queryForCode('BBB-ASDF')).get() }
+        then:
+            jdbcTemplate.queryForObject('SELECT bets_count FROM bet_log_snapshots', Integer) == 3
+            auction.topBet.get().price.amount == 160.00
+            auction.betsCount == 5
+            statistics.entityLoadCount == 4
+        cleanup:
+            statistics?.statisticsEnabled = false
+            cleanUpDatabase()
+    }
+
+    def "should replay a Bet placed after the snapshot in the same instant with a lower id"() {
+        given:
+            ['140.00', '150.00', '160.00'].each { price -> placeBet('BBB-ASDF', price) }
+            Map<String, Object> snapshotted = jdbcTemplate.queryForMap(
+                    "SELECT auction_id, creation_time FROM bets WHERE price_amount = 140.00"
+            )
+            jdbcTemplate.update(
+                    "INSERT INTO bets (id, user_id, auction_id, price_amount, price_currency, creation_time) VALUES (?, ?, ?, 170.00, 'PLN', ?)",
+                    Id.from('00000000-0000-4000-8000-000000000001').asBytes(), Id.generate().asBytes(),
+                    snapshotted.auction_id, snapshotted.creation_time
+            )
+        when:
+            AuctionSnapshot auction = transactionTemplate.execute { auctionRepository.findOne(queryForCode('BBB-ASDF')).get() }
+        then:
+            auction.topBet.get().price.amount == 170.00
+            auction.betsCount == 6
+        cleanup:
+            cleanUpDatabase()
+    }
+
+    def "should reject the sharded engine"() {
+        when:
+            new SnapshottingBetLog(null, null, null, 3, 'sharded')
+        then:
+            thrown(IllegalStateException)
+    }
+
+    private void placeBet(String auctionCode, String price) {
+        auctions.placeBet(PlaceBetSpecification.builder()
+                .auctionCode(auctionCode)
+                .userId(Id.generate())
+                .price(Money.from(price, PLN))
+                .build())
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.gszczepanski.auctionapi.infrastructure.live
+
+import com.gszczepanski.auctionapi.domain.auction.Auction
+import com.gszczepanski.auctionapi.domain.auction.AuctionSnapshot
+import com.gszczepanski.auctionapi.domain.auction.WithAuctionFixtures
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+
+class LiveAuctionBroadcasterSpec extends Specification implements WithAuctionFixtures {
+
+    LiveAuctionBroadcaster broadcaster = new LiveAuctionBroadcaster(1)
+
+    def cleanup() {
+        broadcaster.shutdown()
+    }
+
+    def "should send only the latest update to a subscriber that is still busy with the previous one"() {
+        given:
+            AuctionSnapshot auction = givenStartedAuctionWithBets().asSnapshot()
+            CountDownLatch firstSendStarted = new CountDownLatch(1)
+            CountDownLatch releaseFirstSend = new CountDownLatch(1)
+            List<Integer> sentBetsCounts = new CopyOnWriteArrayList<>()
+            LiveAuctionSink slowSink = new LiveAuctionSink() {
+                void send(LiveAuctionUpdate update) {
+                    if (sentBetsCounts.isEmpty()) {
+                        firstSendStarted.countDown()
+                        releaseFirstSend.await()
+                    }
+                    sentBetsCounts << update.betsCount
+                }
+
+                void close() {
+                }
+            }
+            broadcaster.subscribe(auction.code, slowSink, { Optional.of(auction) })
+            firstSendStarted.await()
+        when:
+            (4..6).each { broadcaster.offer(LiveAuctionUpdate.from(auction).toBuilder().betsCount(it).build()) }
+            releaseFirstSend.countDown()
+        then:
+            new PollingConditions(timeout: 5).eventually {
+                assert sentBetsCounts == [3, 6]
+            }
+    }
+
+    def "should keep top bet from previous update when Auction finishes without new bets"() {
+        given:
+            AuctionSnapshot auction = givenStartedAuctionWithBets().asSnapshot()
+            broadcaster.subscribe(auction.code, Stub(LiveAuctionSink), { Optional.of(auction) })
+        when:
+            broadcaster.offer(LiveAuctionUpdate.from(auction).toBuilder()
+                    .status(Auction.AuctionStatus.FINISHED_SOLD)
+                    .topBet(null)
+                    .build())
+        then:
+            LiveAuctionUpdate latest = broadcaster.feeds[auction.code].latest.get()
+            latest.status == Auction.AuctionStatus.FINISHED_SOLD
+            latest.topBet.price == 15.00
+    }
+
+    def "should push update committed after the first subscriber read the previous state"() {
+        given:
+            AuctionSnapshot auction = givenStartedAuctionWithBets().asSnapshot()
+            AuctionSnapshot finishedAuction = auction.toBuilder().status(Auction.AuctionStatus.FINISHED_SOLD).build()
+            TransactionSynchronizationManager.initSynchronization()
+        when:
+            broadcaster.publishAuctionFinished(finishedAuction)
+            broadcaster.subscribe(auction.code, Stub(LiveAuctionSink), { Optional.of(auction) })
+            TransactionSynchronizationManager.synchronizations.each { it.afterCommit() }
+        then:
+            broadcaster.feeds[auction.code].latest.get().status == Auction.AuctionStatus.FINISHED_SOLD
+        cleanup:
+            TransactionSynchronizationManager.clearSynchronization()
+    }
+
+}
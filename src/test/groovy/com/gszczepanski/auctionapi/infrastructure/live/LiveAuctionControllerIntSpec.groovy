@@ -0,0 +1,58 @@
+package com.gszczepanski.auctionapi.infrastructure.live
+
+import com.gszczepanski.auctionapi.IntegrationBaseSpec
+import com.gszczepanski.auctionapi.domain.Id
+import com.gszczepanski.auctionapi.domain.Money
+import com.gszczepanski.auctionapi.domain.auction.Auctions
+import com.gszczepanski.auctionapi.domain.auction.PlaceBetSpecification
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.test.web.servlet.MvcResult
+import spock.util.concurrent.PollingConditions
+
+import static com.gszczepanski.auctionapi.domain.Money.Currency.PLN
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status
+
+class LiveAuctionControllerIntSpec extends IntegrationBaseSpec {
+
+    @Autowired
+    Auctions auctions
+
+    def "should stream current state of Auction and then new top bets"() {
+        given:
+            MvcResult live = mvc.perform(get('/auctions/BBB-ASDF/live').accept(TEXT_EVENT_STREAM))
+                    .andExpect(request().asyncStarted())
+                    .andReturn()
+        when:
+            auctions.placeBet(PlaceBetSpecification.builder()
+                    .auctionCode('BBB-ASDF')
+                    .userId(Id.generate())
+                    .price(Money.from('150.00', PLN))
+                    .build())
+        then:
+            new PollingConditions(timeout: 5).eventually {
+                List<Map> updates = liveUpdates(live)
+                assert updates*.currentAuctionedPrice == [130.00, 150.00]
+                assert updates*.betsCount == [2, 3]
+                assert updates[1].topBet.price == 150.00
+            }
+        cleanup:
+            live.request.asyncContext.complete()
+            cleanUpDatabase()
+    }
+
+    def "should respond with not found when Auction does not exist"() {
+        expect:
+            mvc.perform(get('/auctions/NOT-EXISTING/live').accept(TEXT_EVENT_STREAM))
+                    .andExpect(status().isNotFound())
+    }
+
+    private List<Map> liveUpdates(MvcResult live) {
+        return live.response.contentAsString.readLines()
+                .findAll { it.startsWith('data:') }
+                .collect { objectMapper.readValue(it.substring('data:'.length()), Map) }
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.gszczepanski.auctionapi.infrastructure.metrics
+
+import com.gszczepanski.auctionapi.IntegrationBaseSpec
+import com.gszczepanski.auctionapi.domain.Id
+import com.gszczepanski.auctionapi.domain.Money
+import com.gszczepanski.auctionapi.domain.auction.Auctions
+import com.gszczepanski.auctionapi.domain.auction.PlaceBetSpecification
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics
+
+import static com.gszczepanski.auctionapi.domain.Money.Currency.PLN
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status
+
+@AutoConfigureMetrics
+class MicrometerAuctionMetricsIntSpec extends IntegrationBaseSpec {
+
+    @Autowired
+    Auctions auctions
+
+    def "should export bet, sweep and repository metrics in Prometheus format"() {
+        given:
+            ['150.00', '140.00'].each { price ->
+                auctions.placeBet(PlaceBetSpecification.builder()
+                        .auctionCode('BBB-ASDF')
+                        .userId(Id.generate())
+                        .price(Money.from(price, PLN))
+                        .build())
+            }
+            auctions.finishEligibleAuctions()
+        when:
+            String scrape = mvc.perform(get('/actuator/prometheus'))
+                    .andExpect(status().isOk())
+                    .andReturn().response.contentAsString
+        then:
+            scrape.contains('auction_bets_placed_seconds_count{status="SUCCESS",} 1.0')
+            scrape.contains('auction_bets_placed_seconds_count{status="FAILURE_PRICE_TOO_LOW",} 1.0')
+            scrape.contains('auction_bets_placed_seconds_bucket{status="SUCCESS",le="+Inf",} 1.0')
+            scrape.contains('auction_lifecycle_sweeps_seconds_count{transition="finish",} 1.0')
+            scrape.contains('auction_lifecycle_sweep_batch_auctions_sum{transition="finish",} 1.0')
+            scrape.contains('auction_bets_per_auction_bets_count 1.0')
+            scrape =~ /auction_repository_queries_seconds_count\{operation="findOne",shape="code",\} \d/
+            scrape.contains('auction_optimistic_lock_conflicts_total 0.0')
+        cleanup:
+            cleanUpDatabase()
+    }
+
+}
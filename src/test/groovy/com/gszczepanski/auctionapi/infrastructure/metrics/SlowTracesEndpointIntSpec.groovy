@@ -0,0 +1,40 @@
+package com.gszczepanski.auctionapi.infrastructure.metrics
+
+import com.gszczepanski.auctionapi.IntegrationBaseSpec
+import com.gszczepanski.auctionapi.domain.Id
+import com.gszczepanski.auctionapi.domain.Money
+import com.gszczepanski.auctionapi.domain.auction.Auctions
+import com.gszczepanski.auctionapi.domain.auction.PlaceBetSpecification
+import org.springframework.beans.factory.annotation.Autowired
+
+import static com.gszczepanski.auctionapi.domain.Money.Currency.PLN
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status
+
+class SlowTracesEndpointIntSpec extends IntegrationBaseSpec {
+
+    @Autowired
+    Auctions auctions
+
+    def "should list slowest placeBet traces with their phase breakdown"() {
+        given:
+            auctions.placeBet(PlaceBetSpecification.builder()
+                    .auctionCode('BBB-ASDF')
+                    .userId(Id.generate())
+                    .price(Money.from('150.00', PLN))
+                    .build())
+        when:
+            String response = mvc.perform(get('/actuator/slowtraces').param('operation', 'placeBet').param('limit', '5'))
+                    .andExpect(status().isOk())
+                    .andReturn().response.contentAsString
+        then:
+            List<Map> traces = objectMapper.readValue(response, List)
+            Map trace = traces.find { it.subject == 'BBB-ASDF' }
+            trace.operation == 'placeBet'
+            trace.phaseMicros.keySet().containsAll(['LOOKUP', 'RESTORE', 'DOMAIN', 'WRITE', 'PUBLISH', 'COMMIT'])
+            trace.totalMicros >= trace.phaseMicros.values().sum() - trace.phaseMicros.size()
+        cleanup:
+            cleanUpDatabase()
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.gszczepanski.auctionapi.infrastructure.outbox
+
+import com.fasterxml.jackson.databind.JsonNode
+import com.gszczepanski.auctionapi.IntegrationBaseSpec
+import com.gszczepanski.auctionapi.domain.Id
+import com.gszczepanski.auctionapi.domain.Money
+import com.gszczepanski.auctionapi.domain.auction.Auctions
+import com.gszczepanski.auctionapi.domain.auction.PlaceBetSpecification
+import org.apache.kafka.clients.consumer.Consumer
+import org.apache.kafka.clients.consumer.ConsumerRecord
+import org.apache.kafka.common.serialization.ByteArrayDeserializer
+import org.apache.kafka.common.serialization.StringDeserializer
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory
+import org.springframework.kafka.test.EmbeddedKafkaBroker
+import org.springframework.kafka.test.context.EmbeddedKafka
+import org.springframework.kafka.test.utils.KafkaTestUtils
+import org.springframework.test.context.TestPropertySource
+
+import static com.gszczepanski.auctionapi.domain.Money.Currency.PLN
+
+@EmbeddedKafka(partitions = 3, topics = ['auction-events'], bootstrapServersProperty = 'spring.kafka.bootstrap-servers')
+@TestPropertySource(properties = [
+        'auction.events.relay.enabled=true',
+        'auction.events.relay.fixed-delay-ms=3600000'
+])
+class KafkaOutboxRelayIntSpec extends IntegrationBaseSpec {
+
+    @Autowired
+    Auctions auctions
+
+    @Autowired
+    KafkaOutboxRelay kafkaOutboxRelay
+
+    @Autowired
+    JdbcTemplate jdbcTemplate
+
+    @Autowired
+    EmbeddedKafkaBroker embeddedKafkaBroker
+
+    def "should relay bet operation events from outbox to Kafka keyed by auction code"() {
+        given:
+            Consumer<String, byte[]> consumer = givenConsumer()
+            auctions.placeBet(PlaceBetSpecification.builder()
+                    .auctionCode('BBB-ASDF')
+                    .userId(Id.generate())
+                    .price(Money.from('150.00', PLN))
+                    .build()
+            )
+
+        when:
+            kafkaOutboxRelay.relay()
+
+        then:
+            ConsumerRecord<String, byte[]> record = KafkaTestUtils.getSingleRecord(consumer, 'auction-events')
+            record.key() == 'BBB-ASDF'
+            JsonNode payload = objectMapper.readTree(record.value())
+            payload.get('type').asText() == 'BET_OPERATION_PERFORMED'
+            payload.get('betResult').asText() == 'SUCCESS'
+            payload.get('price').decimalValue() == 150.00
+            jdbcTemplate.queryForObject('SELECT COUNT(*) FROM auction_events_outbox', Integer) == 0
+        cleanup:
+            consumer?.close()
+            cleanUpDatabase()
+    }
+
+    private Consumer<String, byte[]> givenConsumer() {
+        Map<String, Object> consumerProperties = KafkaTestUtils.consumerProps('outbox-relay-spec', 'false', embeddedKafkaBroker)
+        Consumer<String, byte[]> consumer = new DefaultKafkaConsumerFactory<>(
+                consumerProperties, new StringDeserializer(), new ByteArrayDeserializer()
+        ).createConsumer()
+        embeddedKafkaBroker.consumeFromAnEmbeddedTopic(consumer, 'auction-events')
+        return consumer
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.gszczepanski.auctionapi.infrastructure.web
+
+import org.springframework.mock.web.MockFilterChain
+import org.springframework.mock.web.MockHttpServletRequest
+import org.springframework.mock.web.MockHttpServletResponse
+import spock.lang.Specification
+
+import javax.servlet.FilterChain
+import javax.servlet.ServletRequest
+import javax.servlet.ServletResponse
+import java.time.Duration
+
+class AdmissionLimitFilterSpec extends Specification {
+
+    AdmissionLimitFilter filter = new AdmissionLimitFilter(1, Duration.ofMillis(10))
+
+    def "should reject request with 503 when all permits are taken until admission timeout"() {
+        given:
+            MockHttpServletResponse rejectedResponse = new MockHttpServletResponse()
+            FilterChain chainHoldingPermit = { ServletRequest request, ServletResponse response ->
+                filter.doFilter(new MockHttpServletRequest(), rejectedResponse, new MockFilterChain())
+            } as FilterChain
+        when:
+            MockHttpServletResponse admittedResponse = new MockHttpServletResponse()
+            filter.doFilter(new MockHttpServletRequest(), admittedResponse, chainHoldingPermit)
+        then:
+            admittedResponse.status == 200
+            rejectedResponse.status == 503
+            filter.permits.availablePermits() == 1
+    }
+
+}
@@ -1,2 +1,10 @@
-INSERT INTO `auctions` (`id`,`code`,`status`,`minimal_price_amount`,`minimal_price_currency`,`start_date`,`end_date`,`creation_time`,`version`)
-VALUES ('e16ee4d9-70cb-4252-8aee-f54d0b720e37','AAA-QWER','FINISHED_SOLD',120.00,'PLN','2021-01-25 18:00:00.000Z','2021-01-27 18:00:00.000Z','2021-01-23 17:00:00.000Z',10);
+INSERT INTO `auctions` (`id`,`code`,`status`,`minimal_price_amount`,`minimal_price_currency`,`start_date`,`end_date`,`creation_time`,`version`,`bets_count`)
+VALUES (X'e16ee4d970cb42528aeef54d0b720e37','AAA-QWER','FINISHED_SOLD',120.00,'PLN','2021-01-25 18:00:00.000Z','2021-01-27 18:00:00.000Z','2021-01-23 17:00:00.000Z',10,1);
+INSERT INTO `auctions` (`id`,`code`,`status`,`minimal_price_amount`,`minimal_price_currency`,`start_date`,`end_date`,`creation_time`,`version`,`bets_count`)
+VALUES (X'3c7a4b1e8d524f0a9e6b2a1d5c9f7e40','BBB-ASDF','STARTED',100.00,'PLN','2021-01-25 18:00:00.000Z','2121-01-27 18:00:00.000Z','2021-01-23 17:00:00.000Z',3,2);
+INSERT INTO `auctions` (`id`,`code`,`status`,`minimal_price_amount`,`minimal_price_currency`,`start_date`,`end_date`,`creation_time`,`version`,`bets_count`)
+VALUES (X'7f2d9c4a3b1e4d6fa8c51e9b0d2f4a63','CCC-ZXCV','NOT_STARTED',50.00,'PLN','2021-02-01 18:00:00.000Z','2121-02-03 18:00:00.000Z','2021-01-23 17:00:00.000Z',0,0);
+INSERT INTO `auctions` (`id`,`code`,`status`,`minimal_price_amount`,`minimal_price_currency`,`start_date`,`end_date`,`creation_time`,`version`,`bets_count`)
+VALUES (X'a1b2c3d4e5f64a7b8c9d0e1f2a3b4c5d','DDD-ZXCV','NOT_STARTED',50.00,'PLN','2121-02-01 18:00:00.000Z','2121-02-03 18:00:00.000Z','2021-01-23 17:00:00.000Z',0,0);
+INSERT INTO `auctions` (`id`,`code`,`status`,`minimal_price_amount`,`minimal_price_currency`,`start_date`,`end_date`,`creation_time`,`version`,`bets_count`)
+VALUES (X'0d9e8f7a6b5c4d3e9f2a1b0c9d8e7f6a','EEE-ZXCV','STARTED',50.00,'PLN','2021-01-01 18:00:00.000Z','2021-01-03 18:00:00.000Z','2020-12-23 17:00:00.000Z',1,0);
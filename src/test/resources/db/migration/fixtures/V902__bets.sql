@@ -1,3 +1,8 @@
 --- Auction: AAA-QWER
 INSERT INTO `bets` (`id`,`user_id`,`auction_id`,`price_amount`,`price_currency`,`creation_time`)
-VALUES ('06d891b5-624c-47f2-95b7-0c8f9d264805','812626f4-45f8-47e9-9bff-c5f32743191e','e16ee4d9-70cb-4252-8aee-f54d0b720e37',170.00,'PLN','2021-01-26 18:00:00.000Z');
+VALUES (X'06d891b5624c47f295b70c8f9d264805',X'812626f445f847e99bffc5f32743191e',X'e16ee4d970cb42528aeef54d0b720e37',170.00,'PLN','2021-01-26 18:00:00.000Z');
+--- Auction: BBB-ASDF
+INSERT INTO `bets` (`id`,`user_id`,`auction_id`,`price_amount`,`price_currency`,`creation_time`)
+VALUES (X'5b0e2f7c1a9d4c3e8f6a7d4b2e1c9a05',X'812626f445f847e99bffc5f32743191e',X'3c7a4b1e8d524f0a9e6b2a1d5c9f7e40',110.00,'PLN','2021-01-26 18:00:00.000Z');
+INSERT INTO `bets` (`id`,`user_id`,`auction_id`,`price_amount`,`price_currency`,`creation_time`)
+VALUES (X'9e4c1d3a6b2f4a8eb5d70f3e2c1a8b94',X'0a6f3e2d9c1b4e7a8d5f3b2c1e0d9a87',X'3c7a4b1e8d524f0a9e6b2a1d5c9f7e40',130.00,'PLN','2021-01-26 19:00:00.000Z');